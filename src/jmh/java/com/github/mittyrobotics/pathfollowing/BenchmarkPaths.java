@@ -0,0 +1,56 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.ArrayList;
+
+/**
+ * Shared fixtures for the benchmarks
+ */
+final class BenchmarkPaths {
+
+    private BenchmarkPaths() {}
+
+    /**
+     * Returns a single S-shaped {@link QuinticHermiteSpline} about 3 meters long
+     * @return a single S-shaped {@link QuinticHermiteSpline}
+     */
+    static QuinticHermiteSpline spline() {
+        return new QuinticHermiteSpline(
+                new Pose2D(0, 0, 0),
+                new Pose2D(100 * Path.TO_METERS, 50 * Path.TO_METERS, 0)
+        );
+    }
+
+    /**
+     * Returns a {@link QuinticHermiteSplineGroup} of splines weaving through alternating waypoints
+     * @param splines number of splines in the group
+     * @return a {@link QuinticHermiteSplineGroup} of splines weaving through alternating waypoints
+     */
+    static QuinticHermiteSplineGroup group(int splines) {
+        ArrayList<QuinticHermiteSpline> list = new ArrayList<>();
+        Pose2D prev = new Pose2D(0, 0, 0);
+        for(int i = 1; i <= splines; i++) {
+            Pose2D next = new Pose2D(i * 60 * Path.TO_METERS, (i % 2 == 0 ? 0 : 30) * Path.TO_METERS, 0);
+            list.add(new QuinticHermiteSpline(prev, next));
+            prev = next;
+        }
+        return new QuinticHermiteSplineGroup(list);
+    }
+
+    /**
+     * Returns robot poses offset a few inches to the side of the parametric, evenly spaced in t
+     * @param parametric parametric to sample
+     * @param count number of poses
+     * @return robot poses offset a few inches to the side of the parametric
+     */
+    static Pose2D[] posesAlong(Parametric parametric, int count) {
+        Pose2D[] poses = new Pose2D[count];
+        for(int i = 0; i < count; i++) {
+            Pose2D pose = parametric.getPose((double) i / count);
+            Point2D p = pose.getPosition();
+            double offset = (i % 5 - 2) * Path.TO_METERS;
+            poses[i] = new Pose2D(p.getX() - offset * pose.getAngle().sin(), p.getY() + offset * pose.getAngle().cos(),
+                    pose.getAngle().getRadians());
+        }
+        return poses;
+    }
+}
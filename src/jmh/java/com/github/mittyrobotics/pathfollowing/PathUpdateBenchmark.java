@@ -0,0 +1,77 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for a full control tick of {@link PurePursuitPath} and {@link RamsetePath}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PathUpdateBenchmark {
+
+    private static final double DT = 0.02;
+    private static final double LOOKAHEAD = 15 * Path.TO_METERS;
+    private static final double ADJUST_THRESHOLD = 5 * Path.TO_METERS;
+    private static final int NEWTONS_STEPS = 100;
+    private static final double TRACKWIDTH = 22 * Path.TO_METERS;
+
+    @Param({"1", "10", "100"})
+    public int splines;
+
+    //baseline: global search and full integration, incremental: incremental distance, tracking: also warm-started closest point,
+    //trajectory: also velocities looked up from an offline trajectory
+    @Param({"baseline", "incremental", "tracking", "trajectory"})
+    public String mode;
+
+    private QuinticHermiteSplineGroup group;
+    private PurePursuitPath purePursuitPath;
+    private RamsetePath ramsetePath;
+    private Pose2D[] poses;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setupTrial() {
+        group = BenchmarkPaths.group(splines);
+        poses = BenchmarkPaths.posesAlong(group, 250 * splines);
+    }
+
+    //paths keep motion profile state between updates, so start every iteration from a fresh one
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        purePursuitPath = new PurePursuitPath(group, 80 * Path.TO_METERS, 80 * Path.TO_METERS,
+                100 * Path.TO_METERS, 3, 0, 0);
+        ramsetePath = new RamsetePath(group, 80 * Path.TO_METERS, 80 * Path.TO_METERS,
+                100 * Path.TO_METERS, 3, 0, 0);
+        configure(purePursuitPath);
+        configure(ramsetePath);
+        index = 0;
+    }
+
+    private void configure(Path path) {
+        path.setIncrementalDistance(!mode.equals("baseline"));
+        if(mode.equals("tracking") || mode.equals("trajectory")) path.setClosestPointTracker(new ClosestPointTracker());
+        if(mode.equals("trajectory")) path.generateTrajectory(TrajectoryGenerator.DEFAULT_SPACING);
+    }
+
+    private Pose2D nextPose() {
+        Pose2D pose = poses[index];
+        index = (index + 1) % poses.length;
+        return pose;
+    }
+
+    @Benchmark
+    public DifferentialDriveState purePursuitUpdate() {
+        return purePursuitPath.update(nextPose(), DT, LOOKAHEAD, ADJUST_THRESHOLD, NEWTONS_STEPS, TRACKWIDTH);
+    }
+
+    @Benchmark
+    public DifferentialDriveState ramseteUpdate() {
+        return ramsetePath.update(nextPose(), DT, ADJUST_THRESHOLD, NEWTONS_STEPS, 2.0, 0.7, TRACKWIDTH);
+    }
+}
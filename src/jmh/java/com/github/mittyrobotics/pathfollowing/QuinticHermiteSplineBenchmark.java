@@ -0,0 +1,141 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for evaluating a single {@link QuinticHermiteSpline}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuinticHermiteSplineBenchmark {
+
+    private QuinticHermiteSpline spline, tableSpline, editedSpline;
+    private Pose2D startPose;
+    private Vector2D startVelocity, startAcceleration;
+    private Point2D point;
+    private double t, length;
+
+    //caller-owned outputs for the allocation-free variants
+    private final Point2D out = new Point2D();
+    private final double[] derivatives = new double[Parametric.DERIVATIVES_LENGTH];
+    private final QuadratureResult quadratureResult = new QuadratureResult();
+
+    //t values and outputs for the batch variants
+    private final double[] ts = new double[1000], xs = new double[1000], ys = new double[1000];
+
+    @Setup
+    public void setup() {
+        spline = BenchmarkPaths.spline();
+        tableSpline = BenchmarkPaths.spline();
+        tableSpline.enableArcLengthTable();
+        tableSpline.getArcLengthTable();
+        editedSpline = BenchmarkPaths.spline();
+        startPose = new Pose2D(0, 10 * Path.TO_METERS, 0.2);
+        startVelocity = new Vector2D(startPose.getAngle(), 100 * Path.TO_METERS);
+        startAcceleration = new Vector2D(1, -1);
+        point = new Point2D(40 * Path.TO_METERS, 30 * Path.TO_METERS);
+        t = 0.37;
+        length = spline.getLength() * 0.63;
+        for(int i = 0; i < ts.length; i++) {
+            ts[i] = (double) i / (ts.length - 1);
+        }
+    }
+
+    @Benchmark
+    public Point2D getPoint() {
+        return spline.getPoint(t);
+    }
+
+    @Benchmark
+    public Point2D getPointInto() {
+        return spline.getPoint(t, out);
+    }
+
+    @Benchmark
+    public double[] getDerivatives() {
+        return spline.getDerivatives(t, derivatives);
+    }
+
+    @Benchmark
+    public double[] getPointLoop() {
+        Point2D out = new Point2D();
+        for(int i = 0; i < ts.length; i++) {
+            spline.getPoint(ts[i], out);
+            xs[i] = out.x;
+            ys[i] = out.y;
+        }
+        return xs;
+    }
+
+    @Benchmark
+    public double[] evaluateBatch() {
+        spline.evaluateBatch(ts, xs, ys);
+        return xs;
+    }
+
+    @Benchmark
+    public double[] evaluateCurvatureBatch() {
+        spline.evaluateCurvatureBatch(ts, xs);
+        return xs;
+    }
+
+    @Benchmark
+    public Point2D getFirstDerivative() {
+        return spline.getDerivative(t, 1);
+    }
+
+    @Benchmark
+    public Point2D getSecondDerivative() {
+        return spline.getDerivative(t, 2);
+    }
+
+    @Benchmark
+    public double getCurvature() {
+        return spline.getCurvature(t);
+    }
+
+    @Benchmark
+    public double getGaussianQuadratureLength() {
+        return spline.getGaussianQuadratureLength(t, 17);
+    }
+
+    @Benchmark
+    public QuadratureResult getAdaptiveQuadratureLength() {
+        return spline.getAdaptiveQuadratureLength(0, t, Parametric.DEFAULT_QUADRATURE_TOLERANCE, quadratureResult);
+    }
+
+    @Benchmark
+    public double getTFromLength() {
+        return spline.getTFromLength(length);
+    }
+
+    @Benchmark
+    public double getTFromLengthWithTable() {
+        return tableSpline.getTFromLength(length);
+    }
+
+    @Benchmark
+    public double findClosestPointOnSpline() {
+        return spline.findClosestPointOnSpline(point, 100, 5);
+    }
+
+    @Benchmark
+    public double setStartWithSetters() {
+        editedSpline.setPose0(startPose);
+        editedSpline.setVelocity0(startVelocity);
+        editedSpline.setAcceleration0(startAcceleration);
+        return editedSpline.getLength();
+    }
+
+    @Benchmark
+    public double setStart() {
+        editedSpline.setStart(startPose, startVelocity, startAcceleration);
+        return editedSpline.getLength();
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for lookups on {@link QuinticHermiteSplineGroup}s of increasing size
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuinticHermiteSplineGroupBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int splines;
+
+    private QuinticHermiteSplineGroup group, linearGroup, arcLengthGroup;
+    private ClosestPointGrid grid;
+    private Point2D point;
+    private double t, length;
+    private final double[] ts = new double[10000], xs = new double[10000], ys = new double[10000];
+
+    @Setup
+    public void setup() {
+        group = BenchmarkPaths.group(splines);
+        linearGroup = BenchmarkPaths.group(splines);
+        linearGroup.setUseBoundingBoxTree(false);
+        arcLengthGroup = BenchmarkPaths.group(splines);
+        arcLengthGroup.setArcLengthParameterization(true);
+        grid = new ClosestPointGrid(group, 0.5, 0.2);
+        //somewhere in the last spline, the worst case for the linear scans
+        t = 1 - 0.4 / splines;
+        point = BenchmarkPaths.posesAlong(group, 5)[4].getPosition();
+        length = group.getLength() * (1 - 0.4 / splines);
+        for(int i = 0; i < ts.length; i++) {
+            ts[i] = (double) i / (ts.length - 1);
+        }
+    }
+
+    @Benchmark
+    public Point2D getPoint() {
+        return group.getPoint(t);
+    }
+
+    @Benchmark
+    public Point2D getPointArcLengthParameterization() {
+        return arcLengthGroup.getPoint(t);
+    }
+
+    @Benchmark
+    public Point2D getDerivative() {
+        return group.getDerivative(t, 1);
+    }
+
+    @Benchmark
+    public double[] getPointLoop() {
+        Point2D out = new Point2D();
+        for(int i = 0; i < ts.length; i++) {
+            group.getPoint(ts[i], out);
+            xs[i] = out.x;
+            ys[i] = out.y;
+        }
+        return xs;
+    }
+
+    @Benchmark
+    public double[] evaluateBatch() {
+        group.evaluateBatch(ts, xs, ys);
+        return xs;
+    }
+
+    @Benchmark
+    public double getGaussianQuadratureLength() {
+        return group.getGaussianQuadratureLength(t, 17);
+    }
+
+    @Benchmark
+    public double getTFromLength() {
+        return group.getTFromLength(length);
+    }
+
+    @Benchmark
+    public double findClosestPointOnSpline() {
+        return group.findClosestPointOnSpline(point, 100, 5);
+    }
+
+    @Benchmark
+    public double findClosestPointOnSplineLinearScan() {
+        return linearGroup.findClosestPointOnSpline(point, 100, 5);
+    }
+
+    @Benchmark
+    public double findClosestPointNear() {
+        return group.findClosestPointNear(point, t, 0.2, ClosestPointTracker.WINDOW_STEPS, 5);
+    }
+
+    @Benchmark
+    public double findClosestPointGrid() {
+        return grid.findClosestPoint(point, ClosestPointGrid.DEFAULT_ITERATIONS);
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for getting a {@link Trajectory} at startup: building the splines and generating it on the robot, against
+ * mapping a file written by {@link TrajectoryFile}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrajectoryFileBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int splines;
+
+    private ArrayList<Pose2D> waypoints;
+    private TrajectoryGenerator generator;
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        QuinticHermiteSplineGroup group = BenchmarkPaths.group(splines);
+        waypoints = new ArrayList<>();
+        waypoints.add(group.getSpline(0).getPose0());
+        for(QuinticHermiteSpline spline : group.getSplines()) {
+            waypoints.add(spline.getPose1());
+        }
+        generator = new TrajectoryGenerator(new Path(group, 80 * Path.TO_METERS, 100 * Path.TO_METERS));
+        file = File.createTempFile("trajectory", ".bin");
+        TrajectoryFile.write(generator.generate(group), file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public Trajectory generate() {
+        QuinticHermiteSplineGroup group = new QuinticHermiteSplineGroup();
+        for(int i = 1; i < waypoints.size(); i++) {
+            group.addSpline(new QuinticHermiteSpline(waypoints.get(i - 1), waypoints.get(i)));
+        }
+        return generator.generate(group);
+    }
+
+    @Benchmark
+    public Trajectory read() throws IOException {
+        return TrajectoryFile.read(file);
+    }
+}
@@ -58,6 +58,14 @@ public class Angle {
         this.radians = standardize(this.radians + radians);
     }
 
+    /**
+     * Sets the {@link Angle} to a value in radians
+     * @param radians new value of the angle in radians
+     */
+    public void setRadians(double radians) {
+        this.radians = standardize(radians);
+    }
+
     /**
      * Returns sine of the current angle
      * @return sine of the current angle
@@ -108,6 +116,18 @@ public class Angle {
         return phi > Math.PI ? 2*Math.PI - phi : phi;
     }
 
+    /**
+     * Returns an angle of exactly the given radians, such as a value from {@link #getRadians()} read back from a file.
+     * Standardizing again is skipped because it maps 0 to 2π and 2π to 0
+     * @param radians value of the angle in radians, already standardized
+     * @return a new angle of exactly the given radians
+     */
+    public static Angle fromStandardized(double radians) {
+        Angle angle = new Angle();
+        angle.radians = radians;
+        return angle;
+    }
+
     /**
      * Standardizes an angle to between [0, 2π] radians
      * @param radians radians to standardize
@@ -0,0 +1,127 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class ArcLengthTable {
+    /**
+     * Default number of knots and length tolerance in meters
+     */
+    public static final int DEFAULT_KNOTS = 64;
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    /**
+     * Maximum number of Newton's method corrections after the table lookup
+     */
+    public static final int MAX_CORRECTIONS = 3;
+
+    /**
+     * Degree of the quadrature used inside a single knot interval
+     */
+    private static final int SEGMENT_STEPS = 8;
+
+    /**
+     * Associated parametric, cumulative lengths at t = i / (knots - 1), and length tolerance
+     */
+    private final Parametric parametric;
+    private final double[] lengths;
+    private final double tolerance;
+
+    /**
+     * Creates a new arc length table by integrating the parametric between evenly spaced knots
+     * @param parametric parametric to build the table for
+     * @param knots number of knots to sample (at least 2)
+     * @param tolerance maximum allowed error in meters between the length at the returned t and the desired length
+     */
+    public ArcLengthTable(Parametric parametric, int knots, double tolerance) {
+        this.parametric = parametric;
+        this.tolerance = tolerance;
+        this.lengths = new double[Math.max(2, knots)];
+
+        double step = 1. / (lengths.length - 1);
+        for(int i = 1; i < lengths.length; i++) {
+            lengths[i] = lengths[i-1] + parametric.getGaussianQuadratureLength((i-1) * step, i * step, 17);
+        }
+    }
+
+    /**
+     * Creates a new arc length table with the default number of knots and tolerance
+     * @param parametric parametric to build the table for
+     */
+    public ArcLengthTable(Parametric parametric) {
+        this(parametric, DEFAULT_KNOTS, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Returns the t parameter associated with a certain length from the beginning
+     * @param length length to get the t parameter of
+     * @return the t parameter associated with a certain length from the beginning
+     */
+    public double getTFromLength(double length) {
+        if(length <= 0) return 0;
+        if(length >= getTotalLength()) return 1;
+
+        //binary search for the knot interval containing the length
+        int lo = 0, hi = lengths.length - 1;
+        while(hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if(lengths[mid] <= length) lo = mid;
+            else hi = mid;
+        }
+
+        double step = 1. / (lengths.length - 1);
+        double tLo = lo * step, tHi = hi * step;
+
+        //linearly interpolate inside the interval as the initial guess
+        double t = tLo + step * (length - lengths[lo]) / (lengths[hi] - lengths[lo]);
+
+        for(int i = 0; i < MAX_CORRECTIONS; i++) {
+            double error = lengths[lo] + parametric.getGaussianQuadratureLength(tLo, t, SEGMENT_STEPS) - length;
+            if(Math.abs(error) <= tolerance) break;
+
+            double derivativeMagnitude = parametric.getSpeed(t);
+            if(derivativeMagnitude <= 0.0) break;
+
+            //Newton's method, kept inside the bracketing interval
+            PathMetrics.countNewtonIteration();
+            t = Math.min(tHi, Math.max(tLo, t - error / derivativeMagnitude));
+        }
+
+        return t;
+    }
+
+    /**
+     * Returns the length from t=0 to the given t parameter
+     * @param t t parameter to get the length to
+     * @return the length from t=0 to the given t parameter
+     */
+    public double getLength(double t) {
+        if(t <= 0) return 0;
+        if(t >= 1) return getTotalLength();
+
+        int index = (int) (t * (lengths.length - 1));
+        double tLo = (double) index / (lengths.length - 1);
+        return lengths[index] + parametric.getGaussianQuadratureLength(tLo, t, SEGMENT_STEPS);
+    }
+
+    /**
+     * Returns the total length stored in the table
+     * @return the total length stored in the table
+     */
+    public double getTotalLength() {
+        return lengths[lengths.length - 1];
+    }
+
+    /**
+     * Returns the number of knots in the table
+     * @return the number of knots in the table
+     */
+    public int getKnots() {
+        return lengths.length;
+    }
+
+    /**
+     * Returns the length tolerance in meters
+     * @return the length tolerance in meters
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+}
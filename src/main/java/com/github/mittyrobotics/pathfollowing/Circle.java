@@ -9,7 +9,12 @@ public class Circle {
     /**
      * Center as a {@link Point2D} in meters
      */
-    private Point2D center;
+    private final Point2D center;
+
+    /**
+     * Reused {@link Angle} of the radius through the tangent pose
+     */
+    private final Angle angleOfRadius = new Angle();
 
     /**
      * Creates a circle with radius 0 and center (0, 0)
@@ -25,7 +30,7 @@ public class Circle {
      */
     public Circle(double radius, Point2D center) {
         this.radius = radius;
-        this.center = center;
+        this.center = new Point2D(center.getX(), center.getY());
     }
 
     /**
@@ -36,10 +41,12 @@ public class Circle {
      */
     public int orientationOfPoseAndPoint(Pose2D pose, Point2D point3) {
         Point2D point1 = pose.getPosition();
-        Point2D point2 = new Point2D(point1.getX() + pose.getAngle().cos(), point1.getY() + pose.getAngle().sin());
+        //point2 is one meter ahead of the pose
+        double x2 = point1.getX() + pose.getAngle().cos();
+        double y2 = point1.getY() + pose.getAngle().sin();
 
-        double test = (point2.getY() - point1.getY()) * (point3.getX() - point2.getX()) -
-                   (point2.getX() - point1.getX()) * (point3.getY() - point2.getY());
+        double test = (y2 - point1.getY()) * (point3.getX() - x2) -
+                   (x2 - point1.getX()) * (point3.getY() - y2);
 
         if(Math.abs(test) < 2e-9) return 0;
 
@@ -52,18 +59,29 @@ public class Circle {
      * @param other another {@link Point2D} on the circle
      */
     public void updateFromPoseAndPoint(Pose2D pose, Point2D other) {
-        Angle angleOfRadius = new Angle(pose.getAngle().getRadians() - Math.PI/2);
-        Line radius1 = new Line(pose.getPosition(), angleOfRadius);
+        //same math as intersecting two Lines, written out with slopes and y intercepts to avoid allocating
+        Point2D position = pose.getPosition();
 
-        Line lineThroughPoints = new Line(pose.getPosition(), other);
+        //line through the pose perpendicular to its angle
+        angleOfRadius.setRadians(pose.getAngle().getRadians() - Math.PI/2);
+        double slope1 = angleOfRadius.tan();
+        double y_int1 = position.getY() - position.getX() * slope1;
 
-        if(Math.abs(lineThroughPoints.getSlope() - pose.getAngle().tan()) < 2e-9) {
+        //line through the pose and the other point
+        double slope = (other.getY() - position.getY())/(other.getX() - position.getX());
+
+        if(Math.abs(slope - pose.getAngle().tan()) < 2e-9) {
             this.radius = Double.POSITIVE_INFINITY;
         } else {
-            Point2D midpoint = new Point2D((pose.getPosition().getX() + other.getX()) / 2, (pose.getPosition().getY() + other.getY()) / 2);
-            Line radius2 = lineThroughPoints.getTangentAtPoint(midpoint);
-
-            this.center = radius1.getIntersection(radius2);
+            //perpendicular bisector of the pose and the other point
+            double midX = (position.getX() + other.getX()) / 2;
+            double midY = (position.getY() + other.getY()) / 2;
+            double slope2 = -1./slope;
+            double y_int2 = midY - midX * slope2;
+
+            //intersection of the two lines
+            center.x = (y_int2 - y_int1) / (slope1 - slope2);
+            center.y = slope1 * center.x + y_int1;
             this.radius = center.distance(other);
         }
     }
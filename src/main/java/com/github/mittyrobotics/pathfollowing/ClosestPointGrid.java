@@ -0,0 +1,274 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class ClosestPointGrid {
+    /**
+     * Default cell size and margin around the parametric in meters
+     */
+    public static final double DEFAULT_CELL_SIZE = 0.1;
+    public static final double DEFAULT_MARGIN = 1;
+
+    /**
+     * Default number of Newton's method steps a lookup is refined with
+     */
+    public static final int DEFAULT_ITERATIONS = 2;
+
+    /**
+     * Number of points sampled along the parametric to find the bounds of the grid
+     */
+    private static final int BOUNDS_SAMPLES = 1000;
+
+    /**
+     * Parametric the grid was built for
+     */
+    private final Parametric parametric;
+
+    /**
+     * Lower left corner of the grid and size of each cell in meters, and the number of cells along x and y
+     */
+    private final double minX, minY, cellSize;
+    private final int columns, rows;
+
+    /**
+     * Parameters of the global search run for cell centers when the grid is built and for points outside the grid
+     */
+    private final int steps, iterations;
+
+    /**
+     * Closest t value and distance in meters from the center of each cell to the parametric, cell (column, row) is at
+     * index row * columns + column
+     */
+    private final double[] ts, distances;
+
+    /**
+     * Builds a grid over a rectangle, running the global closest point search from the center of every cell
+     * @param parametric parametric to build the grid for
+     * @param minX minimum x coordinate of the grid in meters
+     * @param minY minimum y coordinate of the grid in meters
+     * @param maxX maximum x coordinate of the grid in meters
+     * @param maxY maximum y coordinate of the grid in meters
+     * @param cellSize width and height of each cell in meters
+     * @param steps the number of steps to start Newton's method from for the global search
+     * @param iterations the number of iterations to run Newton's method on a single step for the global search
+     */
+    public ClosestPointGrid(Parametric parametric, double minX, double minY, double maxX, double maxY, double cellSize,
+                            int steps, int iterations) {
+        this.parametric = parametric;
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((maxY - minY) / cellSize));
+        this.steps = steps;
+        this.iterations = iterations;
+        this.ts = new double[columns * rows];
+        this.distances = new double[columns * rows];
+
+        double[] buffer = new double[Parametric.DERIVATIVES_LENGTH];
+        Point2D center = new Point2D();
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                int index = row * columns + column;
+                center.x = minX + (column + 0.5) * cellSize;
+                center.y = minY + (row + 0.5) * cellSize;
+                ts[index] = parametric.findClosestPointOnSpline(center, steps, iterations, buffer);
+                distances[index] = parametric.getDistanceAtT(ts[index], center);
+            }
+        }
+
+        //the global search can miss the closest point from far inside a curve, where Newton's method leaves [0, 1] from
+        //most steps, but a neighboring cell usually found it: sweep forward and backward, trying the t of the neighbors
+        //that were already visited in each sweep
+        for(int row = 0; row < rows; row++) {
+            for(int column = 0; column < columns; column++) {
+                sweepCell(column, row, -1, buffer, center);
+            }
+        }
+        for(int row = rows - 1; row >= 0; row--) {
+            for(int column = columns - 1; column >= 0; column--) {
+                sweepCell(column, row, 1, buffer, center);
+            }
+        }
+
+        for(int i = 0; i < distances.length; i++) {
+            distances[i] = Math.sqrt(distances[i]);
+        }
+    }
+
+    /**
+     * Builds a grid over the bounding rectangle of a parametric expanded by a margin
+     * @param parametric parametric to build the grid for
+     * @param margin distance in meters the grid extends past the parametric on every side
+     * @param cellSize width and height of each cell in meters
+     */
+    public ClosestPointGrid(Parametric parametric, double margin, double cellSize) {
+        this(parametric, getBounds(parametric), margin, cellSize);
+    }
+
+    /**
+     * Builds a grid over the bounding rectangle of a parametric expanded by the default margin, with the default cell size
+     * @param parametric parametric to build the grid for
+     */
+    public ClosestPointGrid(Parametric parametric) {
+        this(parametric, DEFAULT_MARGIN, DEFAULT_CELL_SIZE);
+    }
+
+    private ClosestPointGrid(Parametric parametric, double[] bounds, double margin, double cellSize) {
+        this(parametric, bounds[0] - margin, bounds[1] - margin, bounds[2] + margin, bounds[3] + margin, cellSize, 100, 5);
+    }
+
+    /**
+     * Refines the closest point from the center of a cell starting from the t of the horizontal and vertical neighbors
+     * a direction away, keeping it if it is closer than the stored one
+     */
+    private void sweepCell(int column, int row, int direction, double[] buffer, Point2D center) {
+        int index = row * columns + column;
+        center.x = minX + (column + 0.5) * cellSize;
+        center.y = minY + (row + 0.5) * cellSize;
+        int neighborColumn = column + direction, neighborRow = row + direction;
+        if(neighborColumn >= 0 && neighborColumn < columns) refineCell(index, ts[index + direction], buffer, center);
+        if(neighborRow >= 0 && neighborRow < rows) refineCell(index, ts[index + direction * columns], buffer, center);
+    }
+
+    /**
+     * Runs Newton's method from a t for the center of a cell, storing the result if it is closer than the stored one
+     */
+    private void refineCell(int index, double startT, double[] buffer, Point2D center) {
+        double t = parametric.findClosestPointNear(center, startT, cellSize * Math.sqrt(2), 0, iterations, buffer);
+        double distance = parametric.getDistanceAtT(t, center);
+        if(distance < distances[index]) {
+            ts[index] = t;
+            distances[index] = distance;
+        }
+    }
+
+    /**
+     * Returns the bounding rectangle of points sampled along a parametric
+     * @return {minX, minY, maxX, maxY} of the sampled points
+     */
+    private static double[] getBounds(Parametric parametric) {
+        double[] ts = new double[BOUNDS_SAMPLES + 1];
+        double[] xs = new double[ts.length];
+        double[] ys = new double[ts.length];
+        for(int i = 0; i < ts.length; i++) {
+            ts[i] = (double) i / BOUNDS_SAMPLES;
+        }
+        parametric.evaluateBatch(ts, xs, ys);
+
+        double[] bounds = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for(int i = 0; i < ts.length; i++) {
+            bounds[0] = Math.min(bounds[0], xs[i]);
+            bounds[1] = Math.min(bounds[1], ys[i]);
+            bounds[2] = Math.max(bounds[2], xs[i]);
+            bounds[3] = Math.max(bounds[3], ys[i]);
+        }
+        return bounds;
+    }
+
+    /**
+     * Returns the index of the cell containing a {@link Point2D}
+     * @param point {@link Point2D} to get the cell of
+     * @return the index of the cell, or -1 if the point is outside the grid
+     */
+    public int getCell(Point2D point) {
+        double column = Math.floor((point.getX() - minX) / cellSize);
+        double row = Math.floor((point.getY() - minY) / cellSize);
+        if(!(column >= 0 && column < columns && row >= 0 && row < rows)) return -1;
+        return (int) row * columns + (int) column;
+    }
+
+    /**
+     * Returns whether a {@link Point2D} is inside the grid
+     * @param point {@link Point2D} to check
+     * @return whether the point is inside the grid
+     */
+    public boolean contains(Point2D point) {
+        return getCell(point) >= 0;
+    }
+
+    /**
+     * Returns the closest associated t value on the parametric from a {@link Point2D}. Inside the grid, Newton's method
+     * is only started from the t stored for the cell and kept within a cell diagonal of it, so the cost does not depend
+     * on the number of splines or steps. Outside the grid, the global search is run instead
+     * @param point the {@link Point2D} that to get closest point from
+     * @param iterations the number of iterations to run Newton's method from the stored t
+     * @return the closest associated t value on the parametric from a {@link Point2D}
+     */
+    public double findClosestPoint(Point2D point, int iterations) {
+        return findClosestPoint(point, iterations, new double[Parametric.DERIVATIVES_LENGTH]);
+    }
+
+    /**
+     * Returns the closest associated t value on the parametric from a {@link Point2D}, without allocating. Inside the
+     * grid, Newton's method is only started from the t stored for the cell and kept within a cell diagonal of it, so
+     * the cost does not depend on the number of splines or steps. Outside the grid, the global search is run instead
+     * @param point the {@link Point2D} that to get closest point from
+     * @param iterations the number of iterations to run Newton's method from the stored t
+     * @param buffer scratch array of at least {@link Parametric#DERIVATIVES_LENGTH}
+     * @return the closest associated t value on the parametric from a {@link Point2D}
+     */
+    public double findClosestPoint(Point2D point, int iterations, double[] buffer) {
+        int cell = getCell(point);
+        if(cell < 0) return parametric.findClosestPointOnSpline(point, steps, this.iterations, buffer);
+
+        //the point is at most half a diagonal from the cell center, a full diagonal leaves room for the closest point
+        //moving faster than the point on the inside of curves
+        double seed = ts[cell];
+        double t = parametric.findClosestPointNear(point, seed, cellSize * Math.sqrt(2), 0, iterations, buffer);
+
+        //Newton's method can step toward a farther stationary point, in which case the stored t is closer
+        return parametric.getDistanceAtT(t, point) <= parametric.getDistanceAtT(seed, point) ? t : seed;
+    }
+
+    /**
+     * Returns the closest t value stored for the cell containing a {@link Point2D}, without refining it
+     * @param point {@link Point2D} to look up
+     * @return the closest t value from the center of the cell, or NaN if the point is outside the grid
+     */
+    public double getT(Point2D point) {
+        int cell = getCell(point);
+        return cell < 0 ? Double.NaN : ts[cell];
+    }
+
+    /**
+     * Returns the distance to the parametric stored for the cell containing a {@link Point2D}, which is within half a
+     * cell diagonal of the distance from the point itself
+     * @param point {@link Point2D} to look up
+     * @return the distance in meters from the center of the cell to the parametric, or NaN if the point is outside the grid
+     */
+    public double getDistance(Point2D point) {
+        int cell = getCell(point);
+        return cell < 0 ? Double.NaN : distances[cell];
+    }
+
+    /**
+     * Returns the parametric the grid was built for
+     * @return the parametric the grid was built for
+     */
+    public Parametric getParametric() {
+        return parametric;
+    }
+
+    /**
+     * Returns the width and height of each cell
+     * @return the width and height of each cell in meters
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Returns the number of cells along x
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of cells along y
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class ClosestPointTracker {
+    /**
+     * Default minimum window half-width and residual threshold in meters
+     */
+    public static final double DEFAULT_MIN_WINDOW = 0.1;
+    public static final double DEFAULT_RESIDUAL_THRESHOLD = 1e-3;
+
+    /**
+     * Number of evenly spaced steps in the window to start Newton's method from, in addition to the previous t
+     */
+    public static final int WINDOW_STEPS = 2;
+
+    /**
+     * The window is this many times the distance the robot can travel in one update
+     */
+    public static final double WINDOW_SCALE = 2;
+
+    /**
+     * Window and fallback parameters
+     */
+    private final double minWindow, residualThreshold;
+
+    /**
+     * Parametric and t of the previous update
+     */
+    private Parametric parametric;
+    private double t;
+
+    /**
+     * Number of updates and how many of them used the global search
+     */
+    private long updates, globalSearches;
+
+    /**
+     * Scratch buffer for the closest point searches
+     */
+    private final double[] buffer = new double[Parametric.DERIVATIVES_LENGTH];
+
+    /**
+     * Creates a new tracker
+     * @param minWindow minimum half-width of the search window in meters, used when the robot is slow or stopped
+     * @param residualThreshold tangential distance in meters past which the windowed result is rejected and a global search is run
+     */
+    public ClosestPointTracker(double minWindow, double residualThreshold) {
+        this.minWindow = minWindow;
+        this.residualThreshold = residualThreshold;
+    }
+
+    /**
+     * Creates a new tracker with the default minimum window and residual threshold
+     */
+    public ClosestPointTracker() {
+        this(DEFAULT_MIN_WINDOW, DEFAULT_RESIDUAL_THRESHOLD);
+    }
+
+    /**
+     * Returns the closest associated t value on the parametric from a {@link Point2D}, warm-started from the previous update
+     * @param parametric parametric to search, a global search is run whenever it changes
+     * @param point the {@link Point2D} that to get closest point from
+     * @param speed current speed of the robot in meters/second
+     * @param dt time passed since last update in seconds
+     * @param steps the number of steps to start Newton's method from for the global search
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @return the closest associated t value on the parametric from a {@link Point2D}
+     */
+    public double update(Parametric parametric, Point2D point, double speed, double dt, int steps, int iterations) {
+        updates++;
+
+        if(parametric != this.parametric) {
+            this.parametric = parametric;
+            return globalSearch(point, steps, iterations);
+        }
+
+        double window = Math.abs(speed) * dt * WINDOW_SCALE + minWindow;
+        double newT = parametric.findClosestPointNear(point, t, window, WINDOW_STEPS, iterations, buffer);
+
+        //endpoints are not stationary points of the distance function, so the residual does not apply to them
+        if(newT > 0 && newT < 1 && parametric.getClosestPointResidual(newT, point, buffer) > residualThreshold) {
+            return globalSearch(point, steps, iterations);
+        }
+
+        t = newT;
+        return t;
+    }
+
+    /**
+     * Runs the global search and stores the result
+     * @param point the {@link Point2D} that to get closest point from
+     * @param steps the number of steps to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @return the closest associated t value on the parametric from a {@link Point2D}
+     */
+    private double globalSearch(Point2D point, int steps, int iterations) {
+        globalSearches++;
+        t = parametric.findClosestPointOnSpline(point, steps, iterations, buffer);
+        return t;
+    }
+
+    /**
+     * Forgets the previous update so the next update runs a global search
+     */
+    public void reset() {
+        parametric = null;
+    }
+
+    /**
+     * Returns the t value of the previous update
+     * @return the t value of the previous update
+     */
+    public double getT() {
+        return t;
+    }
+
+    /**
+     * Returns the number of updates
+     * @return the number of updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the number of updates that ran the global search
+     * @return the number of updates that ran the global search
+     */
+    public long getGlobalSearches() {
+        return globalSearches;
+    }
+}
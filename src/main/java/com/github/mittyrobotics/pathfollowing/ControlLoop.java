@@ -0,0 +1,278 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.Supplier;
+
+public class ControlLoop {
+    /**
+     * Default number of histogram buckets, each bucket is 1% of the period so the histograms cover 4 periods
+     */
+    public static final int DEFAULT_HISTOGRAM_BUCKETS = 400;
+
+    /**
+     * Called every tick with the time since the previous tick in seconds, period of the loop in nanoseconds and
+     * factory of the thread the loop runs on
+     */
+    private final DoubleConsumer tick;
+    private final long period;
+    private final ThreadFactory threadFactory;
+
+    /**
+     * Time each tick took to run and how late each tick started compared to its deadline, in nanoseconds
+     */
+    private final LatencyHistogram executionTimes, startLatencies;
+
+    /**
+     * Number of ticks run, ticks that ran past the deadline of the next tick, and deadlines skipped because of overruns,
+     * only written by the loop thread, and whether the loop thread should clear them and the histograms before its next tick
+     */
+    private volatile long ticks, overruns, skippedTicks;
+    private volatile boolean resetRequested;
+
+    /**
+     * Token of the current run, null while stopped. Each loop thread only runs while the token it was started with is
+     * current, so a thread stopped from its own tick cannot keep running next to one started after it
+     */
+    private final AtomicReference<Object> run = new AtomicReference<>();
+    private Thread thread;
+
+    /**
+     * Creates a new fixed rate control loop
+     * @param tick called every tick with the time since the previous tick in seconds
+     * @param period time between ticks in seconds
+     * @param threadFactory creates the thread the loop runs on, such as {@code Thread.ofVirtual().factory()} on Java 21
+     *                      for a virtual thread
+     */
+    public ControlLoop(DoubleConsumer tick, double period, ThreadFactory threadFactory) {
+        this.tick = tick;
+        this.period = Math.max(1, Math.round(period * 1e9));
+        this.threadFactory = threadFactory;
+        this.executionTimes = new LatencyHistogram(this.period / 100, DEFAULT_HISTOGRAM_BUCKETS);
+        this.startLatencies = new LatencyHistogram(this.period / 100, DEFAULT_HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * Creates a new fixed rate control loop running on a platform thread
+     * @param tick called every tick with the time since the previous tick in seconds
+     * @param period time between ticks in seconds
+     */
+    public ControlLoop(DoubleConsumer tick, double period) {
+        this(tick, period, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a control loop that updates a path every tick with the measured time since the previous tick
+     * @param path path to update
+     * @param follower runs one update of the path with the controller specific parameters
+     * @param robotPose returns the current robot {@link Pose2D} at the start of each tick
+     * @param output receives the {@link DifferentialDriveState} of each tick, the same instance is reused every tick
+     * @param period time between ticks in seconds
+     * @param threadFactory creates the thread the loop runs on
+     * @param <T> type of path to update
+     * @return a new control loop, not started yet
+     */
+    public static <T extends Path> ControlLoop following(T path, PathFollower<T> follower, Supplier<Pose2D> robotPose,
+                                                         Consumer<DifferentialDriveState> output, double period,
+                                                         ThreadFactory threadFactory) {
+        DifferentialDriveState state = new DifferentialDriveState();
+        return new ControlLoop(dt -> output.accept(follower.update(path, robotPose.get(), dt, state)), period, threadFactory);
+    }
+
+    /**
+     * Starts the loop on a new thread, the first tick runs right away. If the previous thread is still finishing a tick
+     * it was stopped from, the new thread waits for it to exit before its first tick
+     * @return true if the loop was started, false if it was already running
+     */
+    public synchronized boolean start() {
+        if(run.get() != null) return false;
+        Object token = new Object();
+        run.set(token);
+        Thread previous = thread;
+        thread = threadFactory.newThread(() -> loop(token, previous));
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Stops the loop and waits for the current tick to finish, unless called from a tick
+     */
+    public void stop() {
+        Thread thread;
+        synchronized(this) {
+            run.set(null);
+            thread = this.thread;
+        }
+        if(thread == null || thread == Thread.currentThread()) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs ticks until stopped. Deadlines are kept on a fixed grid from the first tick instead of waiting a period after
+     * each tick, so the time spent running and waking up does not add up into drift
+     * @param token token of the run, the loop stops once it is no longer current
+     * @param previous thread of the previous run, which may still be finishing the tick it was stopped from
+     */
+    private void loop(Object token, Thread previous) {
+        try {
+            //histograms are recorded from one thread at a time
+            if(previous != null) previous.join();
+
+            long next = System.nanoTime();
+            long previousStart = next - period;
+            while(run.get() == token) {
+                if(resetRequested) {
+                    resetRequested = false;
+                    clearStatistics();
+                }
+
+                long start = System.nanoTime();
+                startLatencies.record(start - next);
+                tick.accept((start - previousStart) / 1e9);
+                previousStart = start;
+                long end = System.nanoTime();
+                executionTimes.record(end - start);
+                ticks++;
+
+                next += period;
+                if(end > next) {
+                    //ran past the next deadline: run the next tick right away, but skip any deadlines that were missed
+                    //entirely instead of running them back to back
+                    overruns++;
+                    long missed = (end - next) / period;
+                    skippedTicks += missed;
+                    next += missed * period;
+                }
+
+                //parkNanos can return early, so park until the deadline is actually reached
+                long remaining;
+                while(run.get() == token && (remaining = next - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            run.compareAndSet(token, null);
+        }
+    }
+
+    /**
+     * Clears the histograms and counters. While the loop is running they are cleared by the loop thread before its next
+     * tick, so they are only written by one thread
+     */
+    public void resetStatistics() {
+        Thread thread;
+        synchronized(this) {
+            if(run.get() != null) {
+                resetRequested = true;
+                return;
+            }
+            thread = this.thread;
+        }
+
+        //a stopped thread may still be finishing its last tick
+        if(thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        synchronized(this) {
+            if(run.get() != null) {
+                resetRequested = true;
+            } else {
+                resetRequested = false;
+                clearStatistics();
+            }
+        }
+    }
+
+    /**
+     * Clears the histograms and counters from the thread that records them
+     */
+    private void clearStatistics() {
+        executionTimes.reset();
+        startLatencies.reset();
+        ticks = 0;
+        overruns = 0;
+        skippedTicks = 0;
+    }
+
+    /**
+     * Returns whether the loop is running
+     * @return whether the loop is running
+     */
+    public boolean isRunning() {
+        return run.get() != null;
+    }
+
+    /**
+     * Returns the time between ticks
+     * @return the time between ticks in seconds
+     */
+    public double getPeriod() {
+        return period / 1e9;
+    }
+
+    /**
+     * Returns the histogram of the time each tick took to run
+     * @return the {@link LatencyHistogram} of execution times in nanoseconds
+     */
+    public LatencyHistogram getExecutionTimes() {
+        return executionTimes;
+    }
+
+    /**
+     * Returns the histogram of how late each tick started compared to its deadline, the jitter of the loop
+     * @return the {@link LatencyHistogram} of start latencies in nanoseconds
+     */
+    public LatencyHistogram getStartLatencies() {
+        return startLatencies;
+    }
+
+    /**
+     * Returns the number of ticks run
+     * @return the number of ticks run
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Returns the number of ticks that ran past the deadline of the next tick
+     * @return the number of overruns
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Returns the number of deadlines skipped because a tick ran past them entirely
+     * @return the number of skipped ticks
+     */
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    /**
+     * Returns string representation of the counters and histograms in milliseconds
+     * @return string representation of the counters and histograms in milliseconds
+     */
+    public String toStringMillis() {
+        return "ticks = " + ticks + ", overruns = " + overruns + ", skipped ticks = " + skippedTicks +
+                "\nexecution time: " + executionTimes.toStringMillis() +
+                "\nstart latency: " + startLatencies.toStringMillis();
+    }
+}
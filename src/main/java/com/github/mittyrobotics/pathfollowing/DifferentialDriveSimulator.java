@@ -0,0 +1,374 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.Arrays;
+
+public class DifferentialDriveSimulator<T extends Path> {
+    /**
+     * Default number of states the buffers hold before growing
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Runs one update of the path, width of drivetrain in meters and time passed between updates in seconds
+     */
+    private final PathFollower<T> follower;
+    private final double trackwidth, dt;
+
+    /**
+     * Recorded states, one column per value. State 0 is the start, state i is the robot after i updates along with the
+     * command of update i and the closest point the path found for it. The closest point t is on the closest
+     * parametric, which is the parametric before update i if it regenerated, and parametrics holds the parametric
+     * followed after update i
+     */
+    private double[] xs, ys, headings, leftVelocities, rightVelocities, linearVelocities, angularVelocities, curvatures;
+    private double[] closestTs, closestXs, closestYs;
+    private Parametric[] closestParametrics, parametrics;
+    private int size;
+
+    /**
+     * Path being followed and reused state of the robot
+     */
+    private T path;
+    private final Pose2D robotPose = new Pose2D();
+    private final DifferentialDriveState state = new DifferentialDriveState();
+    private final Point2D closestPoint = new Point2D();
+
+    /**
+     * Creates a new simulator of a differential drive following paths
+     * @param follower runs one update of a path with the controller specific parameters
+     * @param trackwidth width of drivetrain in meters
+     * @param dt time passed between updates in seconds
+     * @param capacity number of states the buffers hold before growing
+     */
+    public DifferentialDriveSimulator(PathFollower<T> follower, double trackwidth, double dt, int capacity) {
+        this.follower = follower;
+        this.trackwidth = trackwidth;
+        this.dt = dt;
+        allocate(Math.max(1, capacity));
+    }
+
+    /**
+     * Creates a new simulator of a differential drive following paths with the default capacity
+     * @param follower runs one update of a path with the controller specific parameters
+     * @param trackwidth width of drivetrain in meters
+     * @param dt time passed between updates in seconds
+     */
+    public DifferentialDriveSimulator(PathFollower<T> follower, double trackwidth, double dt) {
+        this(follower, trackwidth, dt, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Follows a path from a start pose until it is finished or the time limit is reached
+     * @param path path to follow
+     * @param startPose start {@link Pose2D} of the robot
+     * @param maxTime time limit in seconds
+     * @param endThreshold distance from the end of the parametric to count as finished in meters
+     * @return true if the path was finished before the time limit
+     */
+    public boolean run(T path, Pose2D startPose, double maxTime, double endThreshold) {
+        ensureCapacity((int) Math.ceil(maxTime / dt) + 2);
+        reset(path, startPose);
+        while(getTime(size - 1) < maxTime) {
+            step();
+            if(isFinished(endThreshold)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Clears the recorded states and starts following a path, recording the start as state 0
+     * @param path path to follow
+     * @param startPose start {@link Pose2D} of the robot
+     */
+    public void reset(T path, Pose2D startPose) {
+        this.path = path;
+        robotPose.getPosition().x = startPose.getPosition().getX();
+        robotPose.getPosition().y = startPose.getPosition().getY();
+        robotPose.getAngle().setRadians(startPose.getAngle().getRadians());
+
+        size = 0;
+        Parametric parametric = path.getParametric();
+        double startVelocity = path.getStartVelocity();
+        parametric.getPoint(0, closestPoint);
+        record(startVelocity, startVelocity, startVelocity, path.getAngularVelocityAtPoint(0, startVelocity),
+                path.getCurvature(0), 0, parametric, parametric);
+    }
+
+    /**
+     * Runs one update of the path, moves the robot by the resulting command and records the new state
+     */
+    public void step() {
+        follower.update(path, robotPose, dt, state);
+        //the closest point t is on the parametric the path searched, which is not the followed one if the update
+        //swapped in a background regeneration or regenerated after the search
+        double closestT = path.getClosestPointT();
+        Parametric closestParametric = path.getClosestPointParametric();
+        closestParametric.getPoint(closestT, closestPoint);
+
+        integrate(robotPose, state.getLeftVelocity() * dt, state.getRightVelocity() * dt, trackwidth);
+
+        record(state.getLeftVelocity(), state.getRightVelocity(), state.getLinearVelocity(), state.getAngularVelocity(),
+                path.getCurvature(), closestT, closestParametric, path.getParametric());
+    }
+
+    /**
+     * Returns if the robot is within a distance of the end of the path
+     * @param endThreshold distance from the end of the parametric to count as finished in meters
+     * @return true if the path is finished
+     */
+    public boolean isFinished(double endThreshold) {
+        return path.isFinished(robotPose, endThreshold);
+    }
+
+    /**
+     * Appends the current robot pose and closest point along with a command to the buffers
+     */
+    private void record(double leftVelocity, double rightVelocity, double linearVelocity, double angularVelocity,
+                        double curvature, double closestT, Parametric closestParametric, Parametric parametric) {
+        if(size == xs.length) allocate(size * 2);
+        xs[size] = robotPose.getPosition().getX();
+        ys[size] = robotPose.getPosition().getY();
+        headings[size] = robotPose.getAngle().getRadians();
+        leftVelocities[size] = leftVelocity;
+        rightVelocities[size] = rightVelocity;
+        linearVelocities[size] = linearVelocity;
+        angularVelocities[size] = angularVelocity;
+        curvatures[size] = curvature;
+        closestTs[size] = closestT;
+        closestXs[size] = closestPoint.x;
+        closestYs[size] = closestPoint.y;
+        closestParametrics[size] = closestParametric;
+        parametrics[size] = parametric;
+        size++;
+    }
+
+    /**
+     * Grows the buffers to hold at least a number of states
+     * @param capacity number of states the buffers should hold
+     */
+    public void ensureCapacity(int capacity) {
+        if(capacity > xs.length) allocate(capacity);
+    }
+
+    /**
+     * Resizes the buffers, keeping the recorded states
+     */
+    private void allocate(int capacity) {
+        if(xs == null) {
+            xs = new double[capacity];
+            ys = new double[capacity];
+            headings = new double[capacity];
+            leftVelocities = new double[capacity];
+            rightVelocities = new double[capacity];
+            linearVelocities = new double[capacity];
+            angularVelocities = new double[capacity];
+            curvatures = new double[capacity];
+            closestTs = new double[capacity];
+            closestXs = new double[capacity];
+            closestYs = new double[capacity];
+            closestParametrics = new Parametric[capacity];
+            parametrics = new Parametric[capacity];
+        } else {
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            headings = Arrays.copyOf(headings, capacity);
+            leftVelocities = Arrays.copyOf(leftVelocities, capacity);
+            rightVelocities = Arrays.copyOf(rightVelocities, capacity);
+            linearVelocities = Arrays.copyOf(linearVelocities, capacity);
+            angularVelocities = Arrays.copyOf(angularVelocities, capacity);
+            curvatures = Arrays.copyOf(curvatures, capacity);
+            closestTs = Arrays.copyOf(closestTs, capacity);
+            closestXs = Arrays.copyOf(closestXs, capacity);
+            closestYs = Arrays.copyOf(closestYs, capacity);
+            closestParametrics = Arrays.copyOf(closestParametrics, capacity);
+            parametrics = Arrays.copyOf(parametrics, capacity);
+        }
+    }
+
+    /**
+     * Moves a differential drive pose by the distances traveled by each side
+     * @param pose {@link Pose2D} to move
+     * @param left distance traveled by the left side in meters
+     * @param right distance traveled by the right side in meters
+     * @param trackwidth width of drivetrain in meters
+     */
+    public static void integrate(Pose2D pose, double left, double right, double trackwidth) {
+        //http://rossum.sourceforge.net/papers/DiffSteer/
+        Point2D position = pose.getPosition();
+        double angle = pose.getAngle().getRadians();
+        double sin = Math.sin(angle), cos = Math.cos(angle);
+
+        if(Math.abs(left - right) < 1e-6) {
+            position.x += left * cos;
+            position.y += left * sin;
+        } else {
+            double turnRadius = trackwidth * (left + right) / (2 * (right - left));
+            double newAngle = angle + (right - left) / trackwidth;
+
+            position.x += turnRadius * (Math.sin(newAngle) - sin);
+            position.y -= turnRadius * (Math.cos(newAngle) - cos);
+            pose.getAngle().setRadians(newAngle);
+        }
+    }
+
+    /**
+     * Returns the path being followed
+     * @return the path being followed
+     */
+    public T getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the current robot {@link Pose2D}, which is updated in place by every step
+     * @return the current robot {@link Pose2D}
+     */
+    public Pose2D getRobotPose() {
+        return robotPose;
+    }
+
+    /**
+     * Returns the number of recorded states
+     * @return the number of recorded states
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the time passed between updates in seconds
+     * @return the time passed between updates in seconds
+     */
+    public double getDt() {
+        return dt;
+    }
+
+    /**
+     * Returns the time of a state in seconds
+     * @param index index of the state
+     * @return the time of the state in seconds
+     */
+    public double getTime(int index) {
+        return index * dt;
+    }
+
+    /**
+     * Returns the x coordinate of the robot at a state in meters
+     * @param index index of the state
+     * @return the x coordinate of the robot in meters
+     */
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Returns the y coordinate of the robot at a state in meters
+     * @param index index of the state
+     * @return the y coordinate of the robot in meters
+     */
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Returns the heading of the robot at a state in radians
+     * @param index index of the state
+     * @return the heading of the robot in radians
+     */
+    public double getHeading(int index) {
+        return headings[index];
+    }
+
+    /**
+     * Returns the left side velocity of the command that moved the robot to a state
+     * @param index index of the state
+     * @return the left side velocity in meters/second
+     */
+    public double getLeftVelocity(int index) {
+        return leftVelocities[index];
+    }
+
+    /**
+     * Returns the right side velocity of the command that moved the robot to a state
+     * @param index index of the state
+     * @return the right side velocity in meters/second
+     */
+    public double getRightVelocity(int index) {
+        return rightVelocities[index];
+    }
+
+    /**
+     * Returns the linear velocity of the command that moved the robot to a state
+     * @param index index of the state
+     * @return the linear velocity in meters/second
+     */
+    public double getLinearVelocity(int index) {
+        return linearVelocities[index];
+    }
+
+    /**
+     * Returns the angular velocity of the command that moved the robot to a state
+     * @param index index of the state
+     * @return the angular velocity in radians/second
+     */
+    public double getAngularVelocity(int index) {
+        return angularVelocities[index];
+    }
+
+    /**
+     * Returns the curvature of the parametric at the closest point of the update that moved the robot to a state
+     * @param index index of the state
+     * @return the curvature of the parametric
+     */
+    public double getCurvature(int index) {
+        return curvatures[index];
+    }
+
+    /**
+     * Returns the closest point t the path found in the update that moved the robot to a state, on the parametric of
+     * {@link #getClosestParametric(int)}
+     * @param index index of the state
+     * @return the closest point t
+     */
+    public double getClosestT(int index) {
+        return closestTs[index];
+    }
+
+    /**
+     * Returns the x coordinate of the closest point the path found in the update that moved the robot to a state
+     * @param index index of the state
+     * @return the x coordinate of the closest point in meters
+     */
+    public double getClosestX(int index) {
+        return closestXs[index];
+    }
+
+    /**
+     * Returns the y coordinate of the closest point the path found in the update that moved the robot to a state
+     * @param index index of the state
+     * @return the y coordinate of the closest point in meters
+     */
+    public double getClosestY(int index) {
+        return closestYs[index];
+    }
+
+    /**
+     * Returns the parametric the closest point t of a state is on, which is the parametric before the update that moved
+     * the robot to the state if that update regenerated it, so {@link #getClosestT(int)} evaluated on it gives
+     * {@link #getClosestX(int)} and {@link #getClosestY(int)}
+     * @param index index of the state
+     * @return the parametric of the closest point t
+     */
+    public Parametric getClosestParametric(int index) {
+        return closestParametrics[index];
+    }
+
+    /**
+     * Returns the parametric being followed after the update that moved the robot to a state
+     * @param index index of the state
+     * @return the parametric being followed
+     */
+    public Parametric getParametric(int index) {
+        return parametrics[index];
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+    /**
+     * Width of each bucket in nanoseconds, the last bucket holds every value past the others
+     */
+    private final long bucketWidth;
+    private final AtomicLongArray buckets;
+
+    /**
+     * Number of recorded values, their total and their max in nanoseconds, only written by the recording thread
+     */
+    private volatile long count, total, max;
+
+    /**
+     * Creates a new histogram of evenly sized buckets
+     * @param bucketWidth width of each bucket in nanoseconds
+     * @param bucketCount number of buckets, values past the last bucket are counted in it
+     */
+    public LatencyHistogram(long bucketWidth, int bucketCount) {
+        this.bucketWidth = Math.max(1, bucketWidth);
+        this.buckets = new AtomicLongArray(Math.max(1, bucketCount));
+    }
+
+    /**
+     * Records a value. Values must be recorded from one thread at a time, but can be read from any thread
+     * @param nanos value to record in nanoseconds, negative values are counted as 0
+     */
+    public void record(long nanos) {
+        nanos = Math.max(0, nanos);
+        int bucket = (int) Math.min(buckets.length() - 1, nanos / bucketWidth);
+        buckets.incrementAndGet(bucket);
+        total += nanos;
+        if(nanos > max) max = nanos;
+        count++;
+    }
+
+    /**
+     * Clears the recorded values
+     */
+    public void reset() {
+        for(int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    /**
+     * Returns the number of recorded values
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value
+     * @return the largest recorded value in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values
+     * @return the mean of the recorded values in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        long count = this.count;
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Returns an upper bound of a percentile of the recorded values: the end of the bucket the percentile falls in,
+     * or the max if it falls in the last bucket
+     * @param percentile percentile between 0 and 100
+     * @return the upper bound of the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        for(int i = 0; i < buckets.length(); i++) {
+            total += buckets.get(i);
+        }
+        if(total == 0) return 0;
+
+        long rank = (long) Math.ceil(Math.min(1, Math.max(0, percentile / 100)) * total);
+        long seen = 0;
+        for(int i = 0; i < buckets.length() - 1; i++) {
+            seen += buckets.get(i);
+            if(seen >= Math.max(1, rank)) return Math.min(max, (i + 1) * bucketWidth);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the number of values recorded in a bucket
+     * @param bucket index of the bucket
+     * @return the number of values in the bucket
+     */
+    public long getBucket(int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * Returns the number of buckets
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return buckets.length();
+    }
+
+    /**
+     * Returns the width of each bucket
+     * @return the width of each bucket in nanoseconds
+     */
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * Returns string representation of the count, mean, percentiles and max in milliseconds
+     * @return string representation of the histogram in milliseconds
+     */
+    public String toStringMillis() {
+        return "count = " + count + ", mean = " + getMean() / 1e6 + " ms, p50 = " + getPercentile(50) / 1e6 +
+                " ms, p99 = " + getPercentile(99) / 1e6 + " ms, max = " + max / 1e6 + " ms";
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+
+public class MappedTrajectory extends Trajectory {
+    /**
+     * States at distance i * spacing, stored as one buffer per column, usually views of a file mapped by
+     * {@link TrajectoryFile} so states are only read from disk when they are sampled
+     */
+    private final DoubleBuffer ts, xs, ys, headings, curvatures, velocities, angularVelocities, accelerations, times;
+
+    /**
+     * Index of the last state at or before time k * timeStep, for looking up states by time
+     */
+    private final IntBuffer timeIndices;
+    private final double timeStep;
+
+    /**
+     * Creates a new trajectory reading its states from buffers instead of copying them into arrays. Every buffer is read
+     * with absolute gets from index 0, so their positions are ignored
+     * @param parametric parametric the trajectory was generated from
+     * @param spacing distance in meters between consecutive states
+     * @param ts t parameter of each state
+     * @param xs x coordinate of each state in meters
+     * @param ys y coordinate of each state in meters
+     * @param headings heading of each state in radians
+     * @param curvatures curvature of each state
+     * @param velocities velocity of each state in meters/second
+     * @param angularVelocities angular velocity of each state in radians/second
+     * @param accelerations acceleration from each state to the next in meters/second^2
+     * @param times time of each state since the start in seconds
+     * @param timeIndices index of the last state at or before time k * timeStep, empty to not look up states by time
+     * @param timeStep time between entries of timeIndices in seconds
+     */
+    public MappedTrajectory(Parametric parametric, double spacing, DoubleBuffer ts, DoubleBuffer xs, DoubleBuffer ys,
+                            DoubleBuffer headings, DoubleBuffer curvatures, DoubleBuffer velocities,
+                            DoubleBuffer angularVelocities, DoubleBuffer accelerations, DoubleBuffer times,
+                            IntBuffer timeIndices, double timeStep) {
+        super(parametric, spacing);
+        this.ts = ts;
+        this.xs = xs;
+        this.ys = ys;
+        this.headings = headings;
+        this.curvatures = curvatures;
+        this.velocities = velocities;
+        this.angularVelocities = angularVelocities;
+        this.accelerations = accelerations;
+        this.times = times;
+        this.timeIndices = timeIndices;
+        this.timeStep = timeStep;
+    }
+
+    @Override
+    protected int getTimeIndexCount() {
+        return timeIndices.limit();
+    }
+
+    @Override
+    protected int getTimeIndex(int k) {
+        return timeIndices.get(k);
+    }
+
+    @Override
+    protected double getTimeStep() {
+        return timeStep;
+    }
+
+    @Override
+    public int size() {
+        return ts.limit();
+    }
+
+    @Override
+    public double getT(int index) {
+        return ts.get(index);
+    }
+
+    @Override
+    public double getX(int index) {
+        return xs.get(index);
+    }
+
+    @Override
+    public double getY(int index) {
+        return ys.get(index);
+    }
+
+    @Override
+    public double getHeading(int index) {
+        return headings.get(index);
+    }
+
+    @Override
+    public double getCurvature(int index) {
+        return curvatures.get(index);
+    }
+
+    @Override
+    public double getVelocity(int index) {
+        return velocities.get(index);
+    }
+
+    @Override
+    public double getAngularVelocity(int index) {
+        return angularVelocities.get(index);
+    }
+
+    @Override
+    public double getAcceleration(int index) {
+        return accelerations.get(index);
+    }
+
+    @Override
+    public double getTime(int index) {
+        return times.get(index);
+    }
+}
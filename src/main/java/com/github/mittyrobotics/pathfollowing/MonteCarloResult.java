@@ -0,0 +1,171 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.Arrays;
+
+public class MonteCarloResult {
+    /**
+     * Per rollout cross track errors from the original parametric in meters, time to finish in seconds (NaN if the
+     * rollout did not finish), and number of regenerations
+     */
+    private final double[] maxCrossTrackErrors, rmsCrossTrackErrors, timesToFinish;
+    private final int[] regenerations;
+
+    /**
+     * Creates a new result with room for a number of rollouts
+     * @param rollouts number of rollouts
+     */
+    public MonteCarloResult(int rollouts) {
+        maxCrossTrackErrors = new double[rollouts];
+        rmsCrossTrackErrors = new double[rollouts];
+        timesToFinish = new double[rollouts];
+        regenerations = new int[rollouts];
+    }
+
+    /**
+     * Records the result of a rollout, each rollout must only be recorded by one thread
+     * @param rollout index of the rollout
+     * @param maxCrossTrackError max distance from the original parametric in meters
+     * @param rmsCrossTrackError root mean square distance from the original parametric in meters
+     * @param timeToFinish time to finish in seconds, or NaN if the rollout did not finish
+     * @param regenerations number of times the parametric was regenerated
+     */
+    public void record(int rollout, double maxCrossTrackError, double rmsCrossTrackError, double timeToFinish, int regenerations) {
+        this.maxCrossTrackErrors[rollout] = maxCrossTrackError;
+        this.rmsCrossTrackErrors[rollout] = rmsCrossTrackError;
+        this.timesToFinish[rollout] = timeToFinish;
+        this.regenerations[rollout] = regenerations;
+    }
+
+    /**
+     * Returns the number of rollouts
+     * @return the number of rollouts
+     */
+    public int getRollouts() {
+        return timesToFinish.length;
+    }
+
+    /**
+     * Returns the fraction of rollouts that finished before the time limit
+     * @return the fraction of rollouts that finished, between 0 and 1
+     */
+    public double getFinishRate() {
+        int finished = 0;
+        for(double time : timesToFinish) {
+            if(!Double.isNaN(time)) finished++;
+        }
+        return timesToFinish.length == 0 ? 0 : (double) finished / timesToFinish.length;
+    }
+
+    /**
+     * Returns a percentile of the max cross track errors
+     * @param percentile percentile between 0 and 100
+     * @return the percentile of the max cross track errors in meters
+     */
+    public double getMaxCrossTrackErrorPercentile(double percentile) {
+        return percentile(maxCrossTrackErrors, percentile);
+    }
+
+    /**
+     * Returns a percentile of the root mean square cross track errors
+     * @param percentile percentile between 0 and 100
+     * @return the percentile of the root mean square cross track errors in meters
+     */
+    public double getRmsCrossTrackErrorPercentile(double percentile) {
+        return percentile(rmsCrossTrackErrors, percentile);
+    }
+
+    /**
+     * Returns a percentile of the times to finish of the rollouts that finished
+     * @param percentile percentile between 0 and 100
+     * @return the percentile of the times to finish in seconds, or NaN if no rollout finished
+     */
+    public double getTimeToFinishPercentile(double percentile) {
+        return percentile(timesToFinish, percentile);
+    }
+
+    /**
+     * Returns a percentile of the number of regenerations
+     * @param percentile percentile between 0 and 100
+     * @return the percentile of the number of regenerations
+     */
+    public double getRegenerationsPercentile(double percentile) {
+        double[] values = new double[regenerations.length];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = regenerations[i];
+        }
+        return percentile(values, percentile);
+    }
+
+    /**
+     * Returns the max cross track error of each rollout
+     * @return the max cross track error of each rollout in meters
+     */
+    public double[] getMaxCrossTrackErrors() {
+        return maxCrossTrackErrors;
+    }
+
+    /**
+     * Returns the root mean square cross track error of each rollout
+     * @return the root mean square cross track error of each rollout in meters
+     */
+    public double[] getRmsCrossTrackErrors() {
+        return rmsCrossTrackErrors;
+    }
+
+    /**
+     * Returns the time to finish of each rollout
+     * @return the time to finish of each rollout in seconds, NaN if the rollout did not finish
+     */
+    public double[] getTimesToFinish() {
+        return timesToFinish;
+    }
+
+    /**
+     * Returns the number of regenerations of each rollout
+     * @return the number of regenerations of each rollout
+     */
+    public int[] getRegenerations() {
+        return regenerations;
+    }
+
+    /**
+     * Returns a percentile of values with linear interpolation between the closest ranks, ignoring NaN values
+     * @param values values to get the percentile of
+     * @param percentile percentile between 0 and 100
+     * @return the percentile of the values, or NaN if there are no values
+     */
+    public static double percentile(double[] values, double percentile) {
+        double[] sorted = new double[values.length];
+        int size = 0;
+        for(double value : values) {
+            if(!Double.isNaN(value)) sorted[size++] = value;
+        }
+        if(size == 0) return Double.NaN;
+        Arrays.sort(sorted, 0, size);
+
+        double rank = Math.min(1, Math.max(0, percentile / 100)) * (size - 1);
+        int index = (int) rank;
+        if(index >= size - 1) return sorted[size - 1];
+        return sorted[index] + (sorted[index + 1] - sorted[index]) * (rank - index);
+    }
+
+    /**
+     * Returns string representation of the median, 95th percentile and max of each distribution in meters and seconds
+     * @return string representation of the distributions in meters and seconds
+     */
+    public String toStringMetric() {
+        return "rollouts = " + getRollouts() + ", finish rate = " + getFinishRate() +
+                "\nmax cross track error: " + distribution(maxCrossTrackErrors) +
+                "\nrms cross track error: " + distribution(rmsCrossTrackErrors) +
+                "\ntime to finish: " + distribution(timesToFinish) +
+                "\nregenerations: p50 = " + getRegenerationsPercentile(50) + ", p95 = " + getRegenerationsPercentile(95) +
+                ", max = " + getRegenerationsPercentile(100);
+    }
+
+    /**
+     * Returns the median, 95th percentile and max of values as a string
+     */
+    private static String distribution(double[] values) {
+        return "p50 = " + percentile(values, 50) + ", p95 = " + percentile(values, 95) + ", max = " + percentile(values, 100);
+    }
+}
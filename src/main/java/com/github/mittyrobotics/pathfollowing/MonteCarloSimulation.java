@@ -0,0 +1,215 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+public class MonteCarloSimulation<T extends Path> {
+    /**
+     * Default number of steps and iterations of Newton's method for measuring the cross track error
+     */
+    public static final int DEFAULT_NEWTONS_STEPS = 100;
+    public static final int NEWTONS_ITERATIONS = 5;
+
+    /**
+     * Creates a new path for each rollout and updates it
+     */
+    private final Supplier<T> pathFactory;
+    private final PathFollower<T> follower;
+
+    /**
+     * Width of drivetrain in meters, time step and time limit of a rollout in seconds, and distance to the end of the
+     * parametric to count as finished in meters
+     */
+    private final double trackwidth, dt, maxTime, endThreshold;
+
+    /**
+     * Start pose of each rollout, null to start at the beginning of the parametric
+     */
+    private Function<SplittableRandom, Pose2D> startPoseDistribution;
+
+    /**
+     * Standard deviations of the noise: wheel velocity as a fraction of the commanded velocity, pose measurement
+     * position in meters and heading in radians
+     */
+    private double wheelVelocityNoise, positionNoise, headingNoise;
+
+    private int newtonsSteps = DEFAULT_NEWTONS_STEPS;
+    private long seed;
+
+    /**
+     * Creates a new Monte Carlo simulation of a differential drive following paths
+     * @param pathFactory creates a new path for each rollout, called from multiple threads so it should not share
+     *                    mutable state such as a parametric between paths
+     * @param follower runs one update of a path with the controller specific parameters
+     * @param trackwidth width of drivetrain in meters
+     * @param dt time passed between updates in seconds
+     * @param maxTime time limit of each rollout in seconds
+     * @param endThreshold distance from the end of the parametric to count as finished in meters
+     */
+    public MonteCarloSimulation(Supplier<T> pathFactory, PathFollower<T> follower, double trackwidth, double dt, double maxTime, double endThreshold) {
+        this.pathFactory = pathFactory;
+        this.follower = follower;
+        this.trackwidth = trackwidth;
+        this.dt = dt;
+        this.maxTime = maxTime;
+        this.endThreshold = endThreshold;
+    }
+
+    /**
+     * Runs rollouts in parallel on the common {@link ForkJoinPool}
+     * @param rollouts number of rollouts
+     * @return the {@link MonteCarloResult} of the rollouts
+     */
+    public MonteCarloResult run(int rollouts) {
+        MonteCarloResult result = new MonteCarloResult(rollouts);
+        long[] seeds = rolloutSeeds(rollouts);
+        IntStream.range(0, rollouts).parallel().forEach(i -> runRollout(i, seeds[i], result));
+        return result;
+    }
+
+    /**
+     * Runs rollouts in parallel on a {@link ForkJoinPool}, to limit the number of threads used
+     * @param rollouts number of rollouts
+     * @param pool {@link ForkJoinPool} to run the rollouts on
+     * @return the {@link MonteCarloResult} of the rollouts
+     */
+    public MonteCarloResult run(int rollouts, ForkJoinPool pool) {
+        MonteCarloResult result = new MonteCarloResult(rollouts);
+        long[] seeds = rolloutSeeds(rollouts);
+        pool.submit(() -> IntStream.range(0, rollouts).parallel().forEach(i -> runRollout(i, seeds[i], result))).join();
+        return result;
+    }
+
+    /**
+     * Returns the seed of each rollout, so results do not depend on which thread runs which rollout
+     */
+    private long[] rolloutSeeds(int rollouts) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] seeds = new long[rollouts];
+        for(int i = 0; i < rollouts; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    /**
+     * Runs a single rollout and records it
+     * @param rollout index of the rollout
+     * @param seed seed of the rollout
+     * @param result {@link MonteCarloResult} to record into
+     */
+    private void runRollout(int rollout, long seed, MonteCarloResult result) {
+        SplittableRandom random = new SplittableRandom(seed);
+        T path = pathFactory.get();
+        Parametric original = path.getParametric();
+
+        Pose2D robotPose = startPoseDistribution == null ? original.getPose(0) : startPoseDistribution.apply(random);
+        Pose2D measuredPose = new Pose2D();
+        DifferentialDriveState dds = new DifferentialDriveState();
+
+        //cross track error from the original parametric, since regenerated parametrics start at the robot
+        ClosestPointTracker tracker = new ClosestPointTracker();
+        Point2D closestPoint = new Point2D();
+        double maxError = 0, sumSquaredError = 0;
+        int ticks = 0;
+
+        double time = 0, timeToFinish = Double.NaN;
+        while(time < maxTime) {
+            measuredPose.getPosition().x = robotPose.getPosition().x + positionNoise * nextGaussian(random);
+            measuredPose.getPosition().y = robotPose.getPosition().y + positionNoise * nextGaussian(random);
+            measuredPose.getAngle().setRadians(robotPose.getAngle().getRadians() + headingNoise * nextGaussian(random));
+
+            follower.update(path, measuredPose, dt, dds);
+
+            double left = dds.getLeftVelocity() * (1 + wheelVelocityNoise * nextGaussian(random));
+            double right = dds.getRightVelocity() * (1 + wheelVelocityNoise * nextGaussian(random));
+            DifferentialDriveSimulator.integrate(robotPose, left * dt, right * dt, trackwidth);
+            time += dt;
+
+            double t = tracker.update(original, robotPose.getPosition(), dds.getLinearVelocity(), dt, newtonsSteps, NEWTONS_ITERATIONS);
+            double error = original.getPoint(t, closestPoint).distance(robotPose.getPosition());
+            maxError = Math.max(maxError, error);
+            sumSquaredError += error * error;
+            ticks++;
+
+            if(path.isFinished(robotPose, endThreshold)) {
+                timeToFinish = time;
+                break;
+            }
+        }
+
+        result.record(rollout, maxError, ticks == 0 ? 0 : Math.sqrt(sumSquaredError / ticks), timeToFinish, path.getRegenerations());
+    }
+
+    /**
+     * Returns a normally distributed value with mean 0 and standard deviation 1
+     * @param random random number generator
+     * @return a normally distributed value with mean 0 and standard deviation 1
+     */
+    public static double nextGaussian(SplittableRandom random) {
+        //Box-Muller transform, 1 - u keeps the log argument in (0, 1]
+        double u = 1 - random.nextDouble();
+        double v = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+
+    /**
+     * Returns a start pose distribution normally distributed around a mean {@link Pose2D}
+     * @param mean mean start {@link Pose2D}
+     * @param positionDeviation standard deviation of the position in meters
+     * @param headingDeviation standard deviation of the heading in radians
+     * @return a start pose distribution normally distributed around the mean {@link Pose2D}
+     */
+    public static Function<SplittableRandom, Pose2D> normalPose(Pose2D mean, double positionDeviation, double headingDeviation) {
+        return random -> new Pose2D(
+                mean.getPosition().getX() + positionDeviation * nextGaussian(random),
+                mean.getPosition().getY() + positionDeviation * nextGaussian(random),
+                mean.getAngle().getRadians() + headingDeviation * nextGaussian(random)
+        );
+    }
+
+    /**
+     * Sets the distribution of start poses, called once per rollout with the random number generator of the rollout
+     * @param startPoseDistribution distribution of start poses, or null to start at the beginning of the parametric
+     */
+    public void setStartPoseDistribution(Function<SplittableRandom, Pose2D> startPoseDistribution) {
+        this.startPoseDistribution = startPoseDistribution;
+    }
+
+    /**
+     * Sets the standard deviation of the wheel velocity noise, applied to each side on every update
+     * @param wheelVelocityNoise standard deviation as a fraction of the commanded velocity
+     */
+    public void setWheelVelocityNoise(double wheelVelocityNoise) {
+        this.wheelVelocityNoise = wheelVelocityNoise;
+    }
+
+    /**
+     * Sets the standard deviations of the noise on the pose given to the path on every update
+     * @param positionNoise standard deviation of the position in meters
+     * @param headingNoise standard deviation of the heading in radians
+     */
+    public void setPoseMeasurementNoise(double positionNoise, double headingNoise) {
+        this.positionNoise = positionNoise;
+        this.headingNoise = headingNoise;
+    }
+
+    /**
+     * Sets the number of steps to start Newton's method from when measuring the cross track error
+     * @param newtonsSteps number of steps to start Newton's method from
+     */
+    public void setNewtonsSteps(int newtonsSteps) {
+        this.newtonsSteps = newtonsSteps;
+    }
+
+    /**
+     * Sets the seed the rollouts are generated from, the same seed gives the same result
+     * @param seed seed of the simulation
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
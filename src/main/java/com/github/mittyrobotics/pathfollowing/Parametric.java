@@ -1,11 +1,76 @@
 package com.github.mittyrobotics.pathfollowing;
 
 public class Parametric {
+    /**
+     * Number of values written by {@link #getDerivatives(double, double[])}: x, y, x', y', x'', y''
+     */
+    public static final int DERIVATIVES_LENGTH = 6;
+
+    /**
+     * Largest Legendre-Gauss rule kept in the precomputed tables, larger rules are computed on each call
+     */
+    public static final int MAX_TABLE_STEPS = 64;
+
+    /**
+     * Legendre-Gauss nodes on [-1, 1] and their weights for every rule from 1 to {@link #MAX_TABLE_STEPS} points, stored
+     * one rule after another so the n point rule starts at n * (n - 1) / 2
+     */
+    private static final double[] GAUSS_LEGENDRE_NODES, GAUSS_LEGENDRE_WEIGHTS;
+
+    static {
+        double[][] tables = buildGaussLegendreTables();
+        GAUSS_LEGENDRE_NODES = tables[0];
+        GAUSS_LEGENDRE_WEIGHTS = tables[1];
+    }
+
+    /**
+     * Default absolute tolerance of {@link #getAdaptiveQuadratureLength(double, double, double)} in the units of the
+     * parametric, and the maximum number of times an interval is bisected
+     */
+    public static final double DEFAULT_QUADRATURE_TOLERANCE = 1e-9;
+    public static final int MAX_QUADRATURE_DEPTH = 20;
+
+    /**
+     * Derivative evaluations per interval of the Gauss-Kronrod 7/15 rule
+     */
+    public static final int QUADRATURE_EVALUATIONS = 15;
+
+    /**
+     * Gauss-Kronrod 7/15 nodes on [0, 1] from the outside in, ending with the center. The 7 point Gauss-Legendre rule
+     * uses every other node, so its weights are 0 at the nodes only the Kronrod rule uses
+     */
+    //Source: QUADPACK qk15
+    private static final double[] KRONROD_NODES = {
+            0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245, 0.0
+    };
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649, 0.209482141084727828012999174891714
+    };
+    private static final double[] GAUSS_WEIGHTS = {
+            0.0, 0.129484966168869693270611432679082,
+            0.0, 0.279705391489276667901467771423780,
+            0.0, 0.381830050505118944950369775488975,
+            0.0, 0.417959183673469387755102040816327
+    };
+
     /**
      * Length of the parametric
      */
     protected double length;
 
+    /**
+     * Optional arc length lookup table for {@link #getTFromLength(double)}, built on first use when enabled
+     */
+    protected ArcLengthTable arcLengthTable;
+    protected int arcLengthKnots;
+    protected double arcLengthTolerance;
+
     /**
      * Returns the {@link Point2D} at t
      * @param t t to get associated {@link Point2D}
@@ -21,7 +86,8 @@ public class Parametric {
      * @return {@link Angle} at t
      */
     public Angle getAngle(double t) {
-        return new Angle();
+        double[] derivatives = evaluate(t, 1);
+        return new Angle(derivatives[2], derivatives[3]);
     }
 
     /**
@@ -38,7 +104,7 @@ public class Parametric {
      * @return {@link Pose2D} at t
      */
     public Pose2D getPose(double t) {
-        return new Pose2D();
+        return getPose(t, new Pose2D(), new double[4]);
     }
 
     /**
@@ -51,282 +117,270 @@ public class Parametric {
         return new Point2D();
     }
 
+    /**
+     * Evaluates the point and its derivatives up to an order at t in one call, written into an array as
+     * {x, y, x', y', x'', y'', ...}. This is the single entry point that subclasses override so the shared
+     * work for a t, such as powers of t or finding the spline it falls on, is only done once
+     * @param t t to evaluate at
+     * @param order highest derivative to evaluate, 0 for only the point
+     * @param out array of at least 2 * (order + 1) to write into
+     * @return out
+     */
+    public double[] evaluate(double t, int order, double[] out) {
+        Point2D p = getPoint(t);
+        out[0] = p.x;
+        out[1] = p.y;
+        for(int n = 1; n <= order; n++) {
+            Point2D d = getDerivative(t, n);
+            out[2 * n] = d.x;
+            out[2 * n + 1] = d.y;
+        }
+        return out;
+    }
+
+    /**
+     * Evaluates the point and its derivatives up to an order at t in one call as {x, y, x', y', x'', y'', ...}
+     * @param t t to evaluate at
+     * @param order highest derivative to evaluate, 0 for only the point
+     * @return a new array of length 2 * (order + 1) with the point and derivatives
+     */
+    public double[] evaluate(double t, int order) {
+        return evaluate(t, order, new double[2 * (order + 1)]);
+    }
+
+    /**
+     * Evaluates the points at many t values in one call, written as separate x and y arrays
+     * @param ts t values to evaluate
+     * @param xs array to write the x coordinates into, same length as ts
+     * @param ys array to write the y coordinates into, same length as ts
+     */
+    public void evaluateBatch(double[] ts, double[] xs, double[] ys) {
+        evaluateBatch(ts, xs, ys, 0, ts.length);
+    }
+
+    /**
+     * Evaluates the points at a range of t values in one call, written to the same indices of separate x and y arrays
+     * @param ts t values to evaluate
+     * @param xs array to write the x coordinates into
+     * @param ys array to write the y coordinates into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    public void evaluateBatch(double[] ts, double[] xs, double[] ys, int offset, int length) {
+        Point2D point = new Point2D();
+        for(int i = offset; i < offset + length; i++) {
+            getPoint(ts[i], point);
+            xs[i] = point.x;
+            ys[i] = point.y;
+        }
+    }
+
+    /**
+     * Evaluates the nth derivative at many t values in one call, written as separate x and y arrays
+     * @param ts t values to evaluate
+     * @param n degree of the derivative
+     * @param xs array to write the x components into, same length as ts
+     * @param ys array to write the y components into, same length as ts
+     */
+    public void evaluateDerivativeBatch(double[] ts, int n, double[] xs, double[] ys) {
+        evaluateDerivativeBatch(ts, n, xs, ys, 0, ts.length);
+    }
+
+    /**
+     * Evaluates the nth derivative at a range of t values in one call, written to the same indices of separate x and y arrays
+     * @param ts t values to evaluate
+     * @param n degree of the derivative
+     * @param xs array to write the x components into
+     * @param ys array to write the y components into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    public void evaluateDerivativeBatch(double[] ts, int n, double[] xs, double[] ys, int offset, int length) {
+        Point2D derivative = new Point2D();
+        for(int i = offset; i < offset + length; i++) {
+            getDerivative(ts[i], n, derivative);
+            xs[i] = derivative.x;
+            ys[i] = derivative.y;
+        }
+    }
+
+    /**
+     * Evaluates the curvature at many t values in one call
+     * @param ts t values to evaluate
+     * @param curvatures array to write the curvatures into, same length as ts
+     */
+    public void evaluateCurvatureBatch(double[] ts, double[] curvatures) {
+        evaluateCurvatureBatch(ts, curvatures, 0, ts.length);
+    }
+
+    /**
+     * Evaluates the curvature at a range of t values in one call, written to the same indices of the curvature array
+     * @param ts t values to evaluate
+     * @param curvatures array to write the curvatures into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    public void evaluateCurvatureBatch(double[] ts, double[] curvatures, int offset, int length) {
+        double[] buffer = new double[DERIVATIVES_LENGTH];
+        for(int i = offset; i < offset + length; i++) {
+            curvatures[i] = getCurvature(ts[i], buffer);
+        }
+    }
+
+    /**
+     * Writes the {@link Point2D} at t into an existing {@link Point2D} instead of allocating a new one
+     * @param t t to get associated {@link Point2D}
+     * @param out {@link Point2D} to write the coordinates into
+     * @return out
+     */
+    public Point2D getPoint(double t, Point2D out) {
+        Point2D p = getPoint(t);
+        out.x = p.x;
+        out.y = p.y;
+        return out;
+    }
+
+    /**
+     * Writes the nth derivative at t into an existing {@link Point2D} instead of allocating a new one
+     * @param t t to get associated nth derivative
+     * @param n degree of the derivative
+     * @param out {@link Point2D} to write the derivative into
+     * @return out
+     */
+    public Point2D getDerivative(double t, int n, Point2D out) {
+        Point2D d = getDerivative(t, n);
+        out.x = d.x;
+        out.y = d.y;
+        return out;
+    }
+
+    /**
+     * Writes the {@link Pose2D} at t into an existing {@link Pose2D} instead of allocating a new one
+     * @param t t to get associated {@link Pose2D}
+     * @param out {@link Pose2D} to write the position and angle into
+     * @return out
+     */
+    public Pose2D getPose(double t, Pose2D out) {
+        return getPose(t, out, new double[4]);
+    }
+
+    /**
+     * Writes the {@link Pose2D} at t into an existing {@link Pose2D} without allocating
+     * @param t t to get associated {@link Pose2D}
+     * @param out {@link Pose2D} to write the position and angle into
+     * @param buffer scratch array of at least 4
+     * @return out
+     */
+    public Pose2D getPose(double t, Pose2D out, double[] buffer) {
+        evaluate(t, 1, buffer);
+        out.getPosition().x = buffer[0];
+        out.getPosition().y = buffer[1];
+        out.getAngle().setRadians(Math.atan2(buffer[3], buffer[2]));
+        return out;
+    }
+
+    /**
+     * Writes the point, first derivative, and second derivative at t into an array as {x, y, x', y', x'', y''}
+     * @param t t to get associated point and derivatives
+     * @param out array of at least {@link #DERIVATIVES_LENGTH} to write into
+     * @return out
+     */
+    public double[] getDerivatives(double t, double[] out) {
+        return evaluate(t, 2, out);
+    }
+
+    /**
+     * Returns the magnitude of the first derivative at t
+     * @param t t to get the magnitude of the first derivative at
+     * @return the magnitude of the first derivative at t
+     */
+    public double getSpeed(double t) {
+        return getDerivative(t, 1).magnitude();
+    }
+
     /**
      * Returns an array of the nth Legendre-Gauss coefficients (first column is weights, second column is points)
      * @param n degree of the coefficients
-     * @return double array of the nth Legendre-Gauss coefficients
+     * @return double array of the nth Legendre-Gauss coefficients, empty if n is less than 1
      */
     public double[][] getCoefficients(int n) {
-        //Source: https://pomax.github.io/bezierinfo/legendre-gauss.html
-        switch (n) {
-            case 2:
-                return new double[][] {
-                        {1.0000000000000000, -0.577350269189626},
-                        {1.0000000000000000, 0.577350269189626}
-                };
-            case 3:
-                return new double[][] {
-                        {0.888888888888889, 0.0000000000000000},
-                        {0.555555555555556, -0.774596669241483},
-                        {0.555555555555556, 0.774596669241483}
-                };
-            case 4:
-                return new double[][] {
-                        {0.652145154862546, -0.339981043584856},
-                        {0.652145154862546, 0.339981043584856},
-                        {0.347854845137454, -0.861136311594053},
-                        {0.347854845137454, 0.861136311594053}
-                };
-            case 5:
-                return new double[][] {
-                        {0.568888888888889, 0.0000000000000000},
-                        {0.478628670499367, -0.538469310105683},
-                        {0.478628670499367, 0.538469310105683},
-                        {0.236926885056189, -0.9061798459386640},
-                        {0.236926885056189, 0.9061798459386640},
-                };
-            case 6:
-                return new double[][] {
-                        {0.360761573048139, 0.661209386466265},
-                        {0.360761573048139, -0.661209386466265},
-                        {0.4679139345726910, -0.238619186083197},
-                        {0.4679139345726910, 0.238619186083197},
-                        {0.17132449237917, -0.932469514203152},
-                        {0.17132449237917, 0.932469514203152}
-                };
-            case 7:
-                return new double[][] {
-                        {0.417959183673469, 0.0000000000000000},
-                        {0.381830050505119, 0.405845151377397},
-                        {0.381830050505119, -0.405845151377397},
-                        {0.279705391489277, -0.741531185599395},
-                        {0.279705391489277, 0.741531185599395},
-                        {0.12948496616887, -0.949107912342759},
-                        {0.12948496616887, 0.949107912342759}
-                };
-            case 8:
-                return new double[][] {
-                        {0.3626837833783620, -0.18343464249565},
-                        {0.3626837833783620, 0.18343464249565},
-                        {0.313706645877887, -0.5255324099163290},
-                        {0.313706645877887, 0.5255324099163290},
-                        {0.222381034453375, -0.796666477413627},
-                        {0.222381034453375, 0.796666477413627},
-                        {0.101228536290376, -0.960289856497536},
-                        {0.101228536290376, 0.960289856497536}
-                };
-            case 9:
-                return new double[][] {
-                        {0.33023935500126, 0.0000000000000000},
-                        {0.180648160694857, -0.836031107326636},
-                        {0.180648160694857, 0.836031107326636},
-                        {0.0812743883615744, -0.968160239507626},
-                        {0.0812743883615744, 0.968160239507626},
-                        {0.312347077040003, -0.324253423403809},
-                        {0.312347077040003, 0.324253423403809},
-                        {0.260610696402935, -0.61337143270059},
-                        {0.260610696402935, 0.61337143270059}
-                };
-            case 10:
-                return new double[][] {
-                        {0.295524224714753, -0.148874338981631},
-                        {0.295524224714753, 0.148874338981631},
-                        {0.269266719309996, -0.433395394129247},
-                        {0.269266719309996, 0.433395394129247},
-                        {0.2190863625159820, -0.679409568299024},
-                        {0.2190863625159820, 0.679409568299024},
-                        {0.149451349150581, -0.865063366688985},
-                        {0.149451349150581, 0.865063366688985},
-                        {0.0666713443086881, -0.973906528517172},
-                        {0.0666713443086881, 0.973906528517172}
-                };
-            case 11:
-                return new double[][] {
-                        {0.272925086777901, 0.0000000000000000},
-                        {0.262804544510247, -0.2695431559523450},
-                        {0.262804544510247, 0.2695431559523450},
-                        {0.233193764591991, -0.519096129206812},
-                        {0.233193764591991, 0.519096129206812},
-                        {0.186290210927734, -0.730152005574049},
-                        {0.186290210927734, 0.730152005574049},
-                        {0.125580369464905, -0.887062599768095},
-                        {0.125580369464905, 0.887062599768095},
-                        {0.0556685671161737, -0.9782286581460570},
-                        {0.0556685671161737, 0.9782286581460570}
-                };
-            case 12:
-                return new double[][] {
-                        {0.249147045813403, -0.125233408511469},
-                        {0.249147045813403, 0.125233408511469},
-                        {0.233492536538355, -0.36783149899818},
-                        {0.233492536538355, 0.36783149899818},
-                        {0.203167426723066, -0.587317954286618},
-                        {0.203167426723066, 0.587317954286618},
-                        {0.160078328543346, -0.769902674194305},
-                        {0.160078328543346, 0.769902674194305},
-                        {0.106939325995318, -0.904117256370475},
-                        {0.106939325995318, 0.904117256370475},
-                        {0.0471753363865118, -0.981560634246719},
-                        {0.0471753363865118, 0.981560634246719}
-                };
-            case 13:
-                return new double[][] {
-                        {0.232551553230874, 0.0000000000000000},
-                        {0.226283180262897, -0.230458315955135},
-                        {0.226283180262897, 0.230458315955135},
-                        {0.207816047536889, -0.448492751036447},
-                        {0.207816047536889, 0.448492751036447},
-                        {0.178145980761946, -0.64234933944034},
-                        {0.178145980761946, 0.64234933944034},
-                        {0.138873510219787, -0.80157809073331},
-                        {0.138873510219787, 0.80157809073331},
-                        {0.0921214998377285, -0.917598399222978},
-                        {0.0921214998377285, 0.917598399222978},
-                        {0.0404840047653159, -0.984183054718588},
-                        {0.0404840047653159, 0.984183054718588}
-                };
-            case 14:
-                return new double[][] {
-                        {0.215263853463158, -0.108054948707344},
-                        {0.215263853463158, 0.108054948707344},
-                        {0.205198463721296, -0.31911236892789},
-                        {0.205198463721296, 0.31911236892789},
-                        {0.185538397477938, -0.515248636358154},
-                        {0.185538397477938, 0.515248636358154},
-                        {0.157203167158194, -0.687292904811686},
-                        {0.157203167158194, 0.687292904811686},
-                        {0.121518570687903, -0.8272013150697650},
-                        {0.121518570687903, 0.8272013150697650},
-                        {0.0801580871597602, -0.928434883663574},
-                        {0.0801580871597602, 0.928434883663574},
-                        {0.0351194603317519, -0.986283808696812},
-                        {0.0351194603317519, 0.986283808696812}
-                };
-            case 15:
-                return new double[][] {
-                        {0.202578241925561, 0.0000000000000000},
-                        {0.198431485327112, -0.201194093997435},
-                        {0.198431485327112, 0.201194093997435},
-                        {0.186161000015562, -0.394151347077563},
-                        {0.186161000015562, 0.394151347077563},
-                        {0.166269205816994, -0.570972172608539},
-                        {0.166269205816994, 0.570972172608539},
-                        {0.139570677926154, -0.72441773136017},
-                        {0.139570677926154, 0.72441773136017},
-                        {0.107159220467172, -0.848206583410427},
-                        {0.107159220467172, 0.848206583410427},
-                        {0.0703660474881081, -0.9372733924007060},
-                        {0.0703660474881081, 0.9372733924007060},
-                        {0.0307532419961173, -0.987992518020485},
-                        {0.0307532419961173, 0.987992518020485}
-                };
-            case 16:
-                return new double[][] {
-                        {0.189450610455069, -0.0950125098376374},
-                        {0.189450610455069, 0.0950125098376374},
-                        {0.182603415044924, -0.281603550779259},
-                        {0.182603415044924, 0.281603550779259},
-                        {0.169156519395003, -0.458016777657227},
-                        {0.169156519395003, 0.458016777657227},
-                        {0.149595988816577, -0.617876244402644},
-                        {0.149595988816577, 0.617876244402644},
-                        {0.124628971255534, -0.7554044083550030},
-                        {0.124628971255534, 0.7554044083550030},
-                        {0.0951585116824928, -0.865631202387832},
-                        {0.0951585116824928, 0.865631202387832},
-                        {0.0622535239386479, -0.944575023073233},
-                        {0.0622535239386479, 0.944575023073233},
-                        {0.0271524594117541, -0.98940093499165},
-                        {0.0271524594117541, 0.98940093499165}
-                };
-            case 17:
-                return new double[][] {
-                        {0.179446470356207, 0.0000000000000000},
-                        {0.176562705366993, -0.178484181495848},
-                        {0.176562705366993, 0.178484181495848},
-                        {0.1680041021564500, -0.351231763453876},
-                        {0.1680041021564500, 0.351231763453876},
-                        {0.15404576107681, -0.512690537086477},
-                        {0.15404576107681, 0.512690537086477},
-                        {0.135136368468526, -0.657671159216691},
-                        {0.135136368468526, 0.657671159216691},
-                        {0.1118838471934040, -0.781514003896801},
-                        {0.1118838471934040, 0.781514003896801},
-                        {0.0850361483171792, -0.880239153726986},
-                        {0.0850361483171792, 0.880239153726986},
-                        {0.0554595293739872, -0.950675521768768},
-                        {0.0554595293739872, 0.950675521768768},
-                        {0.0241483028685479, -0.990575475314417},
-                        {0.0241483028685479, 0.990575475314417}
-                };
-            case 18:
-                return new double[][] {
-                        {0.169142382963144, -0.0847750130417353},
-                        {0.169142382963144, 0.0847750130417353},
-                        {0.164276483745833, -0.251886225691506},
-                        {0.164276483745833, 0.251886225691506},
-                        {0.154684675126265, -0.411751161462843},
-                        {0.154684675126265, 0.411751161462843},
-                        {0.140642914670651, -0.559770831073948},
-                        {0.140642914670651, 0.559770831073948},
-                        {0.122555206711479, -0.691687043060353},
-                        {0.122555206711479, 0.691687043060353},
-                        {0.100942044106287, -0.803704958972523},
-                        {0.100942044106287, 0.803704958972523},
-                        {0.0764257302548891, -0.892602466497556},
-                        {0.0764257302548891, 0.892602466497556},
-                        {0.0497145488949698, -0.955823949571398},
-                        {0.0497145488949698, 0.955823949571398},
-                        {0.0216160135264833, -0.991565168420931},
-                        {0.0216160135264833, 0.991565168420931}
-                };
-            case 19:
-                return new double[][] {
-                        {0.161054449848784, 0.0000000000000000},
-                        {0.158968843393954, -0.160358645640225},
-                        {0.158968843393954, 0.160358645640225},
-                        {0.15276604206586, -0.31656409996363},
-                        {0.15276604206586, 0.31656409996363},
-                        {0.142606702173607, -0.464570741375961},
-                        {0.142606702173607, 0.464570741375961},
-                        {0.128753962539336, -0.6005453046616810},
-                        {0.128753962539336, 0.6005453046616810},
-                        {0.1115666455473340, -0.720966177335229},
-                        {0.1115666455473340, 0.720966177335229},
-                        {0.0914900216224500, -0.822714656537143},
-                        {0.0914900216224500, 0.822714656537143},
-                        {0.0690445427376412, -0.903155903614818},
-                        {0.0690445427376412, 0.903155903614818},
-                        {0.0448142267656996, -0.9602081521348300},
-                        {0.0448142267656996, 0.9602081521348300},
-                        {0.0194617882297265, -0.992406843843584},
-                        {0.0194617882297265, 0.992406843843584}
-                };
-            case 20:
-                return new double[][] {
-                        {0.152753387130726, -0.0765265211334973},
-                        {0.152753387130726, 0.0765265211334973},
-                        {0.149172986472604, -0.227785851141645},
-                        {0.149172986472604, 0.227785851141645},
-                        {0.1420961093183820, -0.37370608871542},
-                        {0.1420961093183820, 0.37370608871542},
-                        {0.131688638449177, -0.510867001950827},
-                        {0.131688638449177, 0.510867001950827},
-                        {0.118194531961518, -0.6360536807265150},
-                        {0.118194531961518, 0.6360536807265150},
-                        {0.10193011981724, -0.746331906460151},
-                        {0.10193011981724, 0.746331906460151},
-                        {0.0832767415767048, -0.839116971822219},
-                        {0.0832767415767048, 0.839116971822219},
-                        {0.0626720483341091, -0.912234428251326},
-                        {0.0626720483341091, 0.912234428251326},
-                        {0.0406014298003869, -0.963971927277914},
-                        {0.0406014298003869, 0.963971927277914},
-                        {0.0176140071391521, -0.993128599185095},
-                        {0.0176140071391521, 0.993128599185095}
-                };
-        };
-        return new double[][]{};
+        if(n < 1) return new double[][]{};
+        double[] nodes = GAUSS_LEGENDRE_NODES, weights = GAUSS_LEGENDRE_WEIGHTS;
+        int offset;
+        if(n <= MAX_TABLE_STEPS) {
+            offset = gaussLegendreOffset(n);
+        } else {
+            nodes = new double[n];
+            weights = new double[n];
+            offset = 0;
+            computeGaussLegendre(n, nodes, weights, 0);
+        }
+
+        double[][] coefficients = new double[n][2];
+        for(int i = 0; i < n; i++) {
+            coefficients[i][0] = weights[offset + i];
+            coefficients[i][1] = nodes[offset + i];
+        }
+        return coefficients;
+    }
+
+    /**
+     * Returns the index of the first node of the n point rule in the Legendre-Gauss tables, the rules are stored one
+     * after another starting with the 1 point rule
+     */
+    private static int gaussLegendreOffset(int n) {
+        return n * (n - 1) / 2;
+    }
+
+    /**
+     * Builds the Legendre-Gauss tables for every rule up to {@link #MAX_TABLE_STEPS} points
+     */
+    private static double[][] buildGaussLegendreTables() {
+        int size = gaussLegendreOffset(MAX_TABLE_STEPS + 1);
+        double[] nodes = new double[size];
+        double[] weights = new double[size];
+        for(int n = 1; n <= MAX_TABLE_STEPS; n++) {
+            computeGaussLegendre(n, nodes, weights, gaussLegendreOffset(n));
+        }
+        return new double[][] {nodes, weights};
+    }
+
+    /**
+     * Computes the nodes and weights of the n point Legendre-Gauss rule with Newton's method on the Legendre polynomial
+     * @param n number of points
+     * @param nodes array to write the nodes into, in increasing order
+     * @param weights array to write the weights into, at the same indices as the nodes
+     * @param offset index to write the first node and weight at
+     */
+    private static void computeGaussLegendre(int n, double[] nodes, double[] weights, int offset) {
+        //roots are symmetric around 0, so only the positive half is solved for
+        for(int i = 0; i < (n + 1) / 2; i++) {
+            //initial guess close to the ith largest root
+            //https://en.wikipedia.org/wiki/Gauss%E2%80%93Legendre_quadrature
+            double x = Math.cos(Math.PI * (i + 0.75) / (n + 0.5));
+            double derivative = 0;
+            for(int iteration = 0; iteration < 100; iteration++) {
+                //three term recurrence for P_n(x) and P_(n-1)(x)
+                double p = 1, prev = 0;
+                for(int k = 1; k <= n; k++) {
+                    double prev2 = prev;
+                    prev = p;
+                    p = ((2 * k - 1) * x * prev - (k - 1) * prev2) / k;
+                }
+                derivative = n * (x * p - prev) / (x * x - 1);
+                double dx = p / derivative;
+                x -= dx;
+                if(Math.abs(dx) < 1e-16) break;
+            }
+            //the middle root of an odd rule is exactly 0
+            if(2 * i + 1 == n) x = 0;
+            double weight = 2 / ((1 - x * x) * derivative * derivative);
+
+            nodes[offset + i] = -x;
+            weights[offset + i] = weight;
+            nodes[offset + n - 1 - i] = x;
+            weights[offset + n - 1 - i] = weight;
+        }
     }
 
     /**
@@ -337,7 +391,17 @@ public class Parametric {
      * @return the Gaussian quadrature length of the parametric from a start to end t parameter
      */
     public double getGaussianQuadratureLength(double start, double end, int steps) {
-        double[][] coefficients = getCoefficients(steps);
+        if(steps < 1) return 0;
+        double[] nodes = GAUSS_LEGENDRE_NODES, weights = GAUSS_LEGENDRE_WEIGHTS;
+        int offset;
+        if(steps <= MAX_TABLE_STEPS) {
+            offset = gaussLegendreOffset(steps);
+        } else {
+            nodes = new double[steps];
+            weights = new double[steps];
+            offset = 0;
+            computeGaussLegendre(steps, nodes, weights, 0);
+        }
 
         //we are trying to find integral of sqrt(x'(t)^2 + y'(t)^2) from start to end
 
@@ -345,9 +409,9 @@ public class Parametric {
         double half = (end - start) / 2.0;
         double avg = (start + end) / 2.0;
         double length = 0;
-        for (double[] coefficient : coefficients) {
+        for (int i = offset; i < offset + steps; i++) {
             //sqrt(x'(t)^2 + y'(t)^2)
-            length += getDerivative(avg + half * coefficient[1], 1).magnitude() * coefficient[0];
+            length += getSpeed(avg + half * nodes[i]) * weights[i];
         }
         return length * half;
     }
@@ -371,6 +435,85 @@ public class Parametric {
         return getGaussianQuadratureLength(1.0, steps);
     }
 
+    /**
+     * Returns the length of the parametric from a start to end t parameter using adaptive Gauss-Kronrod 7/15 quadrature.
+     * Intervals are bisected until the difference between the 7 and 15 point rules is within their share of the tolerance
+     * @param start t parameter to start length calculation
+     * @param end t parameter to end length calculation
+     * @param tolerance maximum estimated absolute error in the units of the parametric
+     * @return the length of the parametric from a start to end t parameter
+     */
+    public double getAdaptiveQuadratureLength(double start, double end, double tolerance) {
+        return getAdaptiveQuadratureLength(start, end, tolerance, new QuadratureResult()).getLength();
+    }
+
+    /**
+     * Writes the length of the parametric from a start to end t parameter using adaptive Gauss-Kronrod 7/15 quadrature,
+     * along with its error estimate and the number of derivative evaluations spent, into an existing {@link QuadratureResult}
+     * @param start t parameter to start length calculation
+     * @param end t parameter to end length calculation
+     * @param tolerance maximum estimated absolute error in the units of the parametric
+     * @param out {@link QuadratureResult} to write into
+     * @return out
+     */
+    public QuadratureResult getAdaptiveQuadratureLength(double start, double end, double tolerance, QuadratureResult out) {
+        out.reset();
+        addAdaptiveQuadratureLength(start, end, tolerance, out);
+        return out;
+    }
+
+    /**
+     * Returns the length from t=0 to the end t parameter using adaptive Gauss-Kronrod 7/15 quadrature
+     * @param end t parameter to end length calculation
+     * @param tolerance maximum estimated absolute error in the units of the parametric
+     * @return the length from t=0 to the end t parameter
+     */
+    public double getAdaptiveQuadratureLength(double end, double tolerance) {
+        return getAdaptiveQuadratureLength(0, end, tolerance);
+    }
+
+    /**
+     * Adds the adaptive Gauss-Kronrod 7/15 length from a start to end t parameter to a {@link QuadratureResult}
+     * without resetting it, so pieces of a range can be integrated into the same result
+     * @param start t parameter to start length calculation
+     * @param end t parameter to end length calculation
+     * @param tolerance maximum estimated absolute error of this range in the units of the parametric
+     * @param out {@link QuadratureResult} to add to
+     */
+    protected void addAdaptiveQuadratureLength(double start, double end, double tolerance, QuadratureResult out) {
+        addAdaptiveQuadratureLength(start, end, tolerance, 0, out);
+    }
+
+    /**
+     * Integrates one interval with both rules and either accepts it or bisects it, splitting the tolerance between the halves
+     */
+    private void addAdaptiveQuadratureLength(double start, double end, double tolerance, int depth, QuadratureResult out) {
+        //integral bound transformation from [0,1] to [-1, 1], like getGaussianQuadratureLength
+        double half = (end - start) / 2.0;
+        double avg = (start + end) / 2.0;
+
+        int center = KRONROD_NODES.length - 1;
+        double speed = getSpeed(avg);
+        double kronrod = speed * KRONROD_WEIGHTS[center];
+        double gauss = speed * GAUSS_WEIGHTS[center];
+        for(int i = 0; i < center; i++) {
+            double offset = half * KRONROD_NODES[i];
+            speed = getSpeed(avg - offset) + getSpeed(avg + offset);
+            kronrod += speed * KRONROD_WEIGHTS[i];
+            gauss += speed * GAUSS_WEIGHTS[i];
+        }
+        kronrod *= half;
+        double error = Math.abs(kronrod - gauss * half);
+
+        if(error <= tolerance || depth >= MAX_QUADRATURE_DEPTH) {
+            out.addInterval(kronrod, error, QUADRATURE_EVALUATIONS);
+        } else {
+            out.addEvaluations(QUADRATURE_EVALUATIONS);
+            addAdaptiveQuadratureLength(start, avg, tolerance / 2, depth + 1, out);
+            addAdaptiveQuadratureLength(avg, end, tolerance / 2, depth + 1, out);
+        }
+    }
+
     /**
      * Returns the magnitude of the radial acceleration given a curvature and velocity
      * @param curvature the curvature
@@ -388,11 +531,21 @@ public class Parametric {
      * @return the curvature of the parametric at the given t
      */
     public double getCurvature(double t) {
-        Point2D d1 = getDerivative(t, 1);
-        Point2D d2 = getDerivative(t, 2);
+        return getCurvature(t, new double[DERIVATIVES_LENGTH]);
+    }
+
+    /**
+     * Returns the curvature of the parametric at the given t without allocating
+     * @param t t parameter to get curvature of
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
+     * @return the curvature of the parametric at the given t
+     */
+    public double getCurvature(double t, double[] buffer) {
+        evaluate(t, 2, buffer);
 
         //https://en.wikipedia.org/wiki/Curvature#In_terms_of_a_general_parametrization
-        return (d1.getX() * d2.getY() - d2.getX() * d1.getY()) / Math.pow(d1.getX()*d1.getX() + d1.getY()*d1.getY(), 1.5);
+        double speedSquared = buffer[2]*buffer[2] + buffer[3]*buffer[3];
+        return (buffer[2] * buffer[5] - buffer[4] * buffer[3]) / (speedSquared * Math.sqrt(speedSquared));
     }
 
     /**
@@ -423,19 +576,31 @@ public class Parametric {
      * @return the closest associated t value on the spline from a {@link Point2D} using Newton's method on the distance function
      */
     public double findClosestPointOnSpline(Point2D point, int steps, int iterations) {
+        return findClosestPointOnSpline(point, steps, iterations, new double[DERIVATIVES_LENGTH]);
+    }
+
+    /**
+     * Returns the closest associated t value on the spline from a {@link Point2D} using Newton's method on the distance function,
+     * without allocating
+     * @param point the {@link Point2D} that to get closest point from
+     * @param steps the number of steps to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
+     * @return the closest associated t value on the spline from a {@link Point2D} using Newton's method on the distance function
+     */
+    public double findClosestPointOnSpline(Point2D point, int steps, int iterations, double[] buffer) {
 
-        Vector2D cur_min = new Vector2D(Double.POSITIVE_INFINITY, 0);
+        double min_d = Double.POSITIVE_INFINITY;
+        double min_t = 0;
 
         //the steps to start Newton's method from
         for(double i = 0; i <= 1; i += 1./steps) {
             double cur_t = i;
-            //get first and secondary derivatives of the distance function at that point
-            Vector2D derivs = getDerivsAtT(cur_t, point);
 
             //amount to adjust according to Newton's method
             //https://en.wikipedia.org/wiki/Newton%27s_method
             //using first and second derivatives because we want min of distance function (zero of its derivative)
-            double dt = derivs.getX() / derivs.getY();
+            double dt = getNewtonStepAtT(cur_t, point, buffer);
 
             int counter = 0;
 
@@ -444,22 +609,105 @@ public class Parametric {
 
                 //adjust based on Newton's method, get new derivatives
                 cur_t -= dt;
-                derivs = getDerivsAtT(cur_t, point);
-                dt = derivs.getX() / derivs.getY();
+                dt = getNewtonStepAtT(cur_t, point, buffer);
                 counter++;
             }
 
             //if distance is less than previous min, update distance and t
             double cur_d = getDistanceAtT(cur_t, point);
 
-            if(cur_d < cur_min.getX() && cur_t >= 0 && cur_t <= 1) {
-                cur_min = new Vector2D(cur_d, cur_t);
+            if(cur_d < min_d && cur_t >= 0 && cur_t <= 1) {
+                min_d = cur_d;
+                min_t = cur_t;
             }
         }
 
         //return t of minimum distance, clamped from 0 to 1
-        return Math.min(1, Math.max(0, cur_min.getY()));
+        return Math.min(1, Math.max(0, min_t));
+
+    }
+
+    /**
+     * Returns the closest associated t value on the spline from a {@link Point2D}, only searching a window around a starting t.
+     * Newton's method is started from the starting t and from steps evenly spaced t values across the window
+     * @param point the {@link Point2D} that to get closest point from
+     * @param startT t value to center the window on, usually the previous closest t
+     * @param window half-width of the window in meters along the spline
+     * @param steps the number of evenly spaced steps in the window to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @return the closest associated t value in the window from a {@link Point2D}
+     */
+    public double findClosestPointNear(Point2D point, double startT, double window, int steps, int iterations) {
+        return findClosestPointNear(point, startT, window, steps, iterations, new double[DERIVATIVES_LENGTH]);
+    }
+
+    /**
+     * Returns the closest associated t value on the spline from a {@link Point2D}, only searching a window around a starting t,
+     * without allocating
+     * @param point the {@link Point2D} that to get closest point from
+     * @param startT t value to center the window on, usually the previous closest t
+     * @param window half-width of the window in meters along the spline
+     * @param steps the number of evenly spaced steps in the window to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
+     * @return the closest associated t value in the window from a {@link Point2D}
+     */
+    public double findClosestPointNear(Point2D point, double startT, double window, int steps, int iterations, double[] buffer) {
+        startT = Math.min(1, Math.max(0, startT));
+
+        //convert the window from meters to t using the derivative magnitude at the start
+        double derivativeMagnitude = getSpeed(startT);
+        double windowT = derivativeMagnitude > 0 ? window / derivativeMagnitude : 1;
+        double start = Math.max(0, startT - windowT);
+        double end = Math.min(1, startT + windowT);
+
+        double min_t = startT;
+        double min_d = Double.POSITIVE_INFINITY;
+
+        for(int i = -1; i < steps; i++) {
+            //first run starts from the given t, the rest from evenly spaced steps including the window edges
+            double cur_t = (i < 0) ? startT : (steps == 1 ? start : start + (end - start) * i / (steps - 1));
+
+            for(int counter = 0; counter < iterations; counter++) {
+                double dt = getNewtonStepAtT(cur_t, point, buffer);
+                if(!Double.isFinite(dt)) break;
+                //Newton's method, kept inside the window
+                cur_t = Math.min(end, Math.max(start, cur_t - dt));
+            }
+
+            double cur_d = getDistanceAtT(cur_t, point);
+            if(cur_d < min_d) {
+                min_d = cur_d;
+                min_t = cur_t;
+            }
+        }
+
+        return min_t;
+    }
 
+    /**
+     * Returns the component of the vector from the spline at t to a {@link Point2D} that is tangent to the spline,
+     * which is 0 when t is the closest point (unless t is an endpoint)
+     * @param t t parameter of the spline
+     * @param point {@link Point2D} to get the residual of
+     * @return the tangential distance in meters from the spline at t to a {@link Point2D}
+     */
+    public double getClosestPointResidual(double t, Point2D point) {
+        return getClosestPointResidual(t, point, new double[DERIVATIVES_LENGTH]);
+    }
+
+    /**
+     * Returns the component of the vector from the spline at t to a {@link Point2D} that is tangent to the spline, without allocating
+     * @param t t parameter of the spline
+     * @param point {@link Point2D} to get the residual of
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
+     * @return the tangential distance in meters from the spline at t to a {@link Point2D}
+     */
+    public double getClosestPointResidual(double t, Point2D point, double[] buffer) {
+        getDerivatives(t, buffer);
+        double derivativeMagnitude = Math.sqrt(buffer[2] * buffer[2] + buffer[3] * buffer[3]);
+        if(derivativeMagnitude == 0) return 0;
+        return Math.abs((point.getX() - buffer[0]) * buffer[2] + (point.getY() - buffer[1]) * buffer[3]) / derivativeMagnitude;
     }
 
     /**
@@ -473,19 +721,38 @@ public class Parametric {
         //D2' = 2(x1(t) - x2) * (x1'(t)) + 2(y1(t) - y2) * (y1'(t))
         //D2'' = 2(x1'(t)^2 + (x1(t) - x2)*x1''(t)) + 2(y1'(t)^2 + (y1(t) - y2)*y1''(t))
 
-        Point2D p = getPoint(t); //(x1(t), y1(t))
-        Point2D d1 = getDerivative(t, 1); //(x1'(t), y1'(t))
-        Point2D d2 = getDerivative(t, 2); //(x1''(t), y1''(t))
+        //{x1(t), y1(t), x1'(t), y1'(t), x1''(t), y1''(t)}
+        double[] derivatives = evaluate(t, 2);
 
-        double x_a = p.getX() - point.getX(); // (x1(t) - x2)
-        double y_b = p.getY() - point.getY(); // (y1(t) - y2)
+        double x_a = derivatives[0] - point.getX(); // (x1(t) - x2)
+        double y_b = derivatives[1] - point.getY(); // (y1(t) - y2)
 
         return new Vector2D(
-                2*(x_a*d1.getX() + y_b*d1.getY()), //D2'
-                2*(d1.getX() * d1.getX() + x_a*d2.getX() + d1.getY() * d1.getY() + y_b * d2.getY()) //D2''
+                2*(x_a*derivatives[2] + y_b*derivatives[3]), //D2'
+                2*(derivatives[2] * derivatives[2] + x_a*derivatives[4] + derivatives[3] * derivatives[3] + y_b * derivatives[5]) //D2''
         );
     }
 
+    /**
+     * Returns the Newton's method step (first divided by second derivative of the squared distance function)
+     * from a {@link Point2D} to a t on the spline, without allocating
+     * @param t t value to get distance from on the spline
+     * @param point {@link Point2D} point to get distance from
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
+     * @return the Newton's method step to take from t towards the closest point
+     */
+    public double getNewtonStepAtT(double t, Point2D point, double[] buffer) {
+        PathMetrics.countNewtonIteration();
+        getDerivatives(t, buffer);
+
+        double x_a = buffer[0] - point.getX(); // (x1(t) - x2)
+        double y_b = buffer[1] - point.getY(); // (y1(t) - y2)
+
+        //D2' / D2'', see getDerivsAtT
+        return (2*(x_a*buffer[2] + y_b*buffer[3])) /
+                (2*(buffer[2] * buffer[2] + x_a*buffer[4] + buffer[3] * buffer[3] + y_b * buffer[5]));
+    }
+
     /**
      * Returns the squared distance from the spline at t to a {@link Point2D}
      * @param t t parameter of the spline to get distance from
@@ -505,15 +772,19 @@ public class Parametric {
      * @return the t parameter associated with a certain length from the beginning
      */
     public double getTFromLength(double length) {
+        ArcLengthTable table = getArcLengthTable();
+        if(table != null) return table.getTFromLength(length);
+
         //approximate t: desired length divided by total length
-        double t = length / this.length;
+        double t = length / getLength();
 
         for(int i = 0; i < 5; i++) {
             //magnitude of the derivative
-            double derivativeMagnitude = getDerivative(t, 1).magnitude();
+            double derivativeMagnitude = getSpeed(t);
 
             //Newton's method: length remaining length divided by derivative
             if(derivativeMagnitude > 0.0) {
+                PathMetrics.countNewtonIteration();
                 t -= (getGaussianQuadratureLength(t, 17) - length) / derivativeMagnitude;
                 //Clamp to [0, 1]
                 t = Math.min(1, Math.max(t, 0));
@@ -523,6 +794,65 @@ public class Parametric {
         return t;
     }
 
+    /**
+     * Enables an arc length lookup table for {@link #getTFromLength(double)}, giving a bracketed initial guess
+     * followed by at most {@link ArcLengthTable#MAX_CORRECTIONS} Newton's method corrections
+     * @param knots number of knots to sample the cumulative length at
+     * @param tolerance maximum allowed length error in meters
+     */
+    public void enableArcLengthTable(int knots, double tolerance) {
+        //keep a built table if the settings did not change
+        if(knots == arcLengthKnots && tolerance == arcLengthTolerance) return;
+        this.arcLengthKnots = knots;
+        this.arcLengthTolerance = tolerance;
+        this.arcLengthTable = null;
+    }
+
+    /**
+     * Enables an arc length lookup table with the default number of knots and tolerance
+     */
+    public void enableArcLengthTable() {
+        enableArcLengthTable(ArcLengthTable.DEFAULT_KNOTS, ArcLengthTable.DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Disables the arc length lookup table, returning to plain Newton's method in {@link #getTFromLength(double)}
+     */
+    public void disableArcLengthTable() {
+        this.arcLengthKnots = 0;
+        this.arcLengthTable = null;
+    }
+
+    /**
+     * Returns whether the arc length lookup table is enabled
+     * @return whether the arc length lookup table is enabled
+     */
+    public boolean isArcLengthTableEnabled() {
+        return arcLengthKnots > 0;
+    }
+
+    /**
+     * Returns the {@link ArcLengthTable}, building it if it is enabled but not yet built
+     * @return the {@link ArcLengthTable}, or null if it is disabled
+     */
+    public ArcLengthTable getArcLengthTable() {
+        if(arcLengthKnots <= 0) return null;
+        ArcLengthTable table = arcLengthTable;
+        if(table == null) {
+            table = new ArcLengthTable(this, arcLengthKnots, arcLengthTolerance);
+            arcLengthTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Copies the arc length lookup table settings (not the table itself) to another parametric
+     * @param other parametric to copy the settings to
+     */
+    protected void copyArcLengthTableSettings(Parametric other) {
+        if(isArcLengthTableEnabled()) other.enableArcLengthTable(arcLengthKnots, arcLengthTolerance);
+    }
+
     /**
      * Returns a {@link Vector2D} with the maximum x and y coordinates on the path
      * @param steps number of points to sample
@@ -531,11 +861,21 @@ public class Parametric {
     public Vector2D getAbsoluteMaxCoordinates(double steps) {
         Vector2D max = new Vector2D();
 
+        //same t values as stepping from 0 to 1 by 1/steps, evaluated as one batch
         double stepsize = 1/steps;
-        for(double t = 0; t <= 1; t += stepsize) {
-            Point2D point = getPoint(t);
-            max.x = Math.max(max.x, Math.abs(point.getX()));
-            max.y = Math.max(max.y, Math.abs(point.getY()));
+        int count = 0;
+        for(double t = 0; t <= 1; t += stepsize) count++;
+        double[] ts = new double[count];
+        int index = 0;
+        for(double t = 0; t <= 1; t += stepsize) ts[index++] = t;
+
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        evaluateBatch(ts, xs, ys);
+
+        for(int i = 0; i < count; i++) {
+            max.x = Math.max(max.x, Math.abs(xs[i]));
+            max.y = Math.max(max.y, Math.abs(ys[i]));
         }
 
         return max;
@@ -552,4 +892,17 @@ public class Parametric {
         return new Parametric();
     }
 
+    /**
+     * Return a new {@link Parametric} path to this parametric's setpoint from a position, velocity, and acceleration,
+     * reusing an already found closest point t instead of searching for it again
+     * @param newPos {@link Pose2D} to start from
+     * @param newVel {@link Vector2D} velocity to start from
+     * @param newAcc {@link Vector2D} acceleration to start from
+     * @param closestT t of the closest point on this parametric to newPos
+     * @return a new {@link Parametric} path to this parametric's setpoint from a position, velocity, and acceleration
+     */
+    public Parametric getNewPath(Pose2D newPos, Vector2D newVel, Vector2D newAcc, double closestT) {
+        return getNewPath(newPos, newVel, newAcc);
+    }
+
 }
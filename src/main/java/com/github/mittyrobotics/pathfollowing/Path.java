@@ -1,6 +1,9 @@
 package com.github.mittyrobotics.pathfollowing;
 
-import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 public class Path {
     /**
@@ -20,7 +23,73 @@ public class Path {
      */
     protected double prevVelocity, distanceTraveled, closestPointT, distanceToEnd, maxVelocityToEnd, velocity, purePursuitRadius;
     protected boolean turnRight;
-    protected ArrayList<Vector2D> previewVelocities = new ArrayList<>();
+
+    /**
+     * Parametric closestPointT was found on, which differs from the followed parametric after a regeneration
+     */
+    protected Parametric closestPointParametric;
+
+    /**
+     * Number of times the parametric has been regenerated
+     */
+    protected int regenerations;
+    protected final PreviewVelocityQueue previewVelocities;
+
+    /**
+     * Optional executor the parametric is regenerated on instead of inside the update, null to regenerate inside the
+     * update, and the regeneration running on it
+     */
+    protected Executor regenerationExecutor;
+    protected CompletableFuture<Parametric> pendingRegeneration;
+
+    /**
+     * Number of background regenerations that failed and the exception of the last one
+     */
+    protected int regenerationFailures;
+    protected Throwable lastRegenerationFailure;
+
+    /**
+     * Incremental distance tracking: the parametric and t that distanceTraveled was last integrated to
+     */
+    protected boolean incrementalDistance;
+    protected Parametric distanceParametric;
+    protected double distanceT;
+
+    /**
+     * Absolute tolerance of the adaptive quadrature the distance traveled is integrated with, 0 to use the fixed
+     * 17 point rule, and the result of the last integration
+     */
+    protected double quadratureTolerance;
+    protected final QuadratureResult quadratureResult = new QuadratureResult();
+
+    /**
+     * Optional warm-started closest point search, null to run the global search on every update
+     */
+    protected ClosestPointTracker closestPointTracker;
+
+    /**
+     * Optional precomputed closest t values around the parametric, used while its parametric is followed
+     */
+    protected ClosestPointGrid closestPointGrid;
+
+    /**
+     * Optional offline {@link Trajectory} to look up velocities from instead of previewing, used while its parametric is followed
+     */
+    protected Trajectory trajectory;
+    protected final TrajectoryState trajectoryState = new TrajectoryState();
+
+    /**
+     * Optional per stage timing of updates and the listener it is reported to, null when disabled so disabled metrics
+     * only cost a null check per stage
+     */
+    protected PathMetrics metrics;
+    protected PathMetricsListener metricsListener;
+
+    /**
+     * Reused buffers so updates do not allocate in steady state
+     */
+    protected final double[] derivatives = new double[Parametric.DERIVATIVES_LENGTH];
+    protected final Point2D scratchPoint = new Point2D();
 
     /**
      * Create a new path with motion profile
@@ -39,6 +108,7 @@ public class Path {
         this.maxVelocity = maxVelocity;
         this.maxAngularVelocity = maxAngularVelocity;
         this.endVelocity = endVelocity;
+        this.previewVelocities = new PreviewVelocityQueue(maxDeceleration);
 
         this.startVelocity = startVelocity;
         this.prevVelocity = startVelocity;
@@ -72,7 +142,7 @@ public class Path {
      * Clear previewed velocities that have passed
      */
     public void clearOldPreviewed() {
-        previewVelocities.removeIf(previewVelocity -> previewVelocity.getY() <= distanceTraveled);
+        previewVelocities.removeUpTo(distanceTraveled);
     }
 
     /**
@@ -80,14 +150,8 @@ public class Path {
      * @return the maximum possible velocity from velocity previews
      */
     public double getMaxVelocityFromPreviews() {
-        double min = Double.POSITIVE_INFINITY;
-
-        for(Vector2D vel : previewVelocities) {
-            //get max possible current velocity given future velocity and distance from future velocity
-            min = Math.min(min, maxVelocityFromDistance(vel.y-distanceTraveled, vel.x, maxDeceleration));
-        }
-
-        return min;
+        //get max possible current velocity given the most limiting future velocity and distance from it
+        return previewVelocities.getMaxVelocity(distanceTraveled);
     }
 
     /**
@@ -96,7 +160,396 @@ public class Path {
      * @return maximum current velocity given curvature
      */
     public double maxVelocityFromT(double t) {
-        return maxVelocityFromRadius(1/(getCurvature(t)));
+        return maxVelocityFromRadius(1/(parametric.getCurvature(t, derivatives)));
+    }
+
+    /**
+     * Updates the t of the closest point on the parametric to the robot, using the {@link ClosestPointGrid} if the robot
+     * is inside it, otherwise the {@link ClosestPointTracker} if there is one
+     * @param robotPose current robot {@link Pose2D}
+     * @param dt time passed since last update
+     * @param newtonsSteps number of steps to run Newton's method for the global search
+     */
+    protected void updateClosestPoint(Pose2D robotPose, double dt, int newtonsSteps) {
+        closestPointParametric = parametric;
+        if(closestPointGrid != null && closestPointGrid.getParametric() == parametric && closestPointGrid.contains(robotPose.getPosition())) {
+            closestPointT = closestPointGrid.findClosestPoint(robotPose.getPosition(), ClosestPointGrid.DEFAULT_ITERATIONS, derivatives);
+        } else if(closestPointTracker != null) {
+            closestPointT = closestPointTracker.update(parametric, robotPose.getPosition(), prevVelocity, dt, newtonsSteps, 5);
+        } else {
+            closestPointT = parametric.findClosestPointOnSpline(robotPose.getPosition(), newtonsSteps, 5, derivatives);
+        }
+    }
+
+    /**
+     * Plans the velocity for the current update from the motion profile limits and sets prevVelocity to it
+     * @param dt time passed since last update
+     * @param radius radius of the arc being followed, to limit the velocity by max angular velocity
+     */
+    protected void updateVelocity(double dt, double radius) {
+        //limit velocity by max velocity and max acceleration
+        //v = a * t
+        velocity = Math.min(prevVelocity + maxAcceleration * dt, maxVelocity);
+
+        if(trajectory != null && trajectory.getParametric() == parametric) {
+            //the trajectory already limits by curvature and max deceleration ahead, look up where the robot will be after this update
+            trajectory.sampleByDistance(distanceTraveled + velocity * dt, trajectoryState);
+            velocity = Math.min(trajectoryState.velocity, velocity);
+        } else {
+            //angular velocity preview distance based on how much distance it takes to completely slow down (worst case)
+            double previewDistance = distanceToSlowdown(prevVelocity, 0, maxDeceleration);
+            //get preview t value associated with that distance
+            double previewT = parametric.getTFromLength(distanceTraveled + previewDistance);
+            //find the maximum possible velocity at that t value
+            double maxVelocityAtPreview = maxVelocityFromT(previewT);
+
+            //add previewed max velocity and preview distance to queue
+            previewVelocities.add(distanceTraveled + previewDistance, maxVelocityAtPreview);
+            //remove previews with distance less than traveled distance
+            clearOldPreviewed();
+
+            //update max possible current velocity from previews
+            velocity = Math.min(getMaxVelocityFromPreviews(), velocity);
+        }
+
+        //limit current velocity based on max angular velocity
+        if(Double.isFinite(radius)) {
+            //get max velocity given max angular velocity and curvature
+            double maxCurvatureVelocity = maxVelocityFromRadius(radius);
+
+            velocity = Math.min(velocity, maxCurvatureVelocity);
+        }
+
+        //distance to end
+        distanceToEnd = parametric.getLength() - distanceTraveled;
+
+        //max possible current velocity given max deceleration
+        maxVelocityToEnd = maxVelocityFromDistance(distanceToEnd, endVelocity, maxDeceleration);
+        velocity = Math.min(velocity, maxVelocityToEnd);
+
+        //limit deceleration to max deceleration
+        velocity = Math.max(prevVelocity - maxDeceleration * dt, velocity);
+
+        prevVelocity = velocity;
+    }
+
+    /**
+     * Sets the {@link Trajectory} to look up velocities from while its parametric is being followed. Once the path is
+     * regenerated, velocities are planned online again
+     * @param trajectory {@link Trajectory} generated from the parametric of the path, or null to always plan online
+     */
+    public void setTrajectory(Trajectory trajectory) {
+        this.trajectory = trajectory;
+    }
+
+    /**
+     * Generates a {@link Trajectory} from the current parametric with the motion profile limits of the path and uses it
+     * @param spacing desired distance between states in meters
+     * @return the generated {@link Trajectory}
+     */
+    public Trajectory generateTrajectory(double spacing) {
+        trajectory = new TrajectoryGenerator(this, spacing).generate(parametric);
+        return trajectory;
+    }
+
+    /**
+     * Returns the {@link Trajectory} velocities are looked up from
+     * @return the {@link Trajectory}, or null if velocities are always planned online
+     */
+    public Trajectory getTrajectory() {
+        return trajectory;
+    }
+
+    /**
+     * Regenerates the parametric from the robot if it is further than the adjust threshold from the closest point,
+     * starting from the closest point t found in this update. With a regeneration executor the new parametric is
+     * generated in the background and swapped in by {@link #applyPendingRegeneration()} on a later update
+     * @param robotPose current robot {@link Pose2D}
+     * @param dt time passed since last update
+     * @param adjust_threshold threshold for adaptively regenerating the parametric in meters
+     * @return true if the parametric was regenerated in this update
+     */
+    protected boolean updateRegeneration(Pose2D robotPose, double dt, double adjust_threshold) {
+        //keep following the current parametric while a regeneration is running
+        if(pendingRegeneration != null) return false;
+
+        //adaptively regenerate path if distance from spline is greater than the adjust threshold
+        if(parametric.getPoint(closestPointT, scratchPoint).distance(robotPose.getPosition()) > adjust_threshold) {
+            //current velocity
+            Vector2D curVel = new Vector2D(velocity * robotPose.getAngle().cos(), velocity * robotPose.getAngle().sin());
+            //current acceleration
+            double acc = (velocity - prevVelocity) / dt;
+            Vector2D curAcc = new Vector2D(acc * robotPose.getAngle().cos(), acc * robotPose.getAngle().sin());
+
+            //the new parametric keeps the pose it starts from, and the caller may move the robot pose after the update
+            Pose2D pose = new Pose2D(robotPose);
+
+            if(regenerationExecutor == null) {
+                //generate new path
+                setRegeneratedParametric(parametric.getNewPath(pose, curVel, curAcc, closestPointT));
+                return true;
+            }
+
+            //getNewPath only reads the current parametric, whose lazily built caches are safely published, and does not
+            //change the splines it shares with it, so the control thread can keep following it meanwhile
+            Parametric current = parametric;
+            double closestT = closestPointT;
+            pendingRegeneration = CompletableFuture.supplyAsync(() -> current.getNewPath(pose, curVel, curAcc, closestT), regenerationExecutor);
+        }
+        return false;
+    }
+
+    /**
+     * Swaps in the parametric of a finished background regeneration, called at the start of an update so the whole
+     * update follows the same parametric. A regeneration that failed is recorded in
+     * {@link #getLastRegenerationFailure()} and dropped so the next update can start another
+     * @return true if the parametric was swapped
+     */
+    protected boolean applyPendingRegeneration() {
+        CompletableFuture<Parametric> pending = pendingRegeneration;
+        if(pending == null || !pending.isDone()) return false;
+
+        pendingRegeneration = null;
+        Parametric regenerated;
+        try {
+            regenerated = pending.join();
+        } catch(CompletionException | CancellationException e) {
+            //join wraps the exception thrown by the regeneration
+            lastRegenerationFailure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            regenerationFailures++;
+            return false;
+        }
+        setRegeneratedParametric(regenerated);
+        return true;
+    }
+
+    /**
+     * Starts following a regenerated parametric
+     * @param regenerated the regenerated parametric
+     */
+    protected void setRegeneratedParametric(Parametric regenerated) {
+        parametric = regenerated;
+        distanceToEnd = parametric.getLength();
+        regenerations++;
+    }
+
+    /**
+     * Sets the executor the parametric is regenerated on. The update that finds the robot past the adjust threshold
+     * submits the regeneration and keeps following the current parametric, and the first update after it finishes
+     * swaps it in
+     * @param regenerationExecutor executor to regenerate on, or null to regenerate inside the update
+     */
+    public void setRegenerationExecutor(Executor regenerationExecutor) {
+        this.regenerationExecutor = regenerationExecutor;
+    }
+
+    /**
+     * Returns the executor the parametric is regenerated on
+     * @return the executor to regenerate on, or null if the parametric is regenerated inside the update
+     */
+    public Executor getRegenerationExecutor() {
+        return regenerationExecutor;
+    }
+
+    /**
+     * Returns the number of background regenerations that failed, which keep being started while the robot is past the
+     * adjust threshold
+     * @return the number of failed background regenerations
+     */
+    public int getRegenerationFailures() {
+        return regenerationFailures;
+    }
+
+    /**
+     * Returns the exception thrown by the last background regeneration that failed
+     * @return the exception of the last failed background regeneration, or null if none has failed
+     */
+    public Throwable getLastRegenerationFailure() {
+        return lastRegenerationFailure;
+    }
+
+    /**
+     * Returns whether a background regeneration is running or finished but not swapped in yet
+     * @return whether a background regeneration is pending
+     */
+    public boolean isRegenerationPending() {
+        return pendingRegeneration != null;
+    }
+
+    /**
+     * Starts timing an update if metrics are enabled
+     */
+    protected void beginMetrics() {
+        if(metrics != null) metrics.beginUpdate();
+    }
+
+    /**
+     * Records a stage of the update if metrics are enabled
+     * @param stage index of the stage, such as {@link PathMetrics#CLOSEST_POINT}
+     */
+    protected void endStage(int stage) {
+        if(metrics != null) metrics.endStage(stage);
+    }
+
+    /**
+     * Finishes timing an update and reports it to the listener if metrics are enabled
+     * @param regenerated whether the update regenerated the parametric
+     */
+    protected void endMetrics(boolean regenerated) {
+        if(metrics != null) {
+            metrics.endUpdate(regenerated);
+            if(metricsListener != null) metricsListener.onUpdate(this, metrics);
+        }
+    }
+
+    /**
+     * Sets whether updates record the time spent and Newton's method steps taken in each stage
+     * @param enabled true to record metrics
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if(!enabled) {
+            metrics = null;
+        } else if(metrics == null) {
+            metrics = new PathMetrics();
+        }
+    }
+
+    /**
+     * Sets the listener the {@link PathMetrics} are reported to after every update, enabling metrics if it is not null
+     * @param metricsListener listener to report to, or null to stop reporting while keeping metrics enabled
+     */
+    public void setMetricsListener(PathMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        if(metricsListener != null) setMetricsEnabled(true);
+    }
+
+    /**
+     * Returns the {@link PathMetrics} of the updates, which are updated in place by every update
+     * @return the {@link PathMetrics}, or null if metrics are disabled
+     */
+    public PathMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the {@link ClosestPointTracker} used to warm-start the closest point search from the previous update
+     * @param closestPointTracker tracker to use, or null to run the global search on every update
+     */
+    public void setClosestPointTracker(ClosestPointTracker closestPointTracker) {
+        this.closestPointTracker = closestPointTracker;
+    }
+
+    /**
+     * Returns the {@link ClosestPointTracker} used to warm-start the closest point search
+     * @return the {@link ClosestPointTracker}, or null if the global search is run on every update
+     */
+    public ClosestPointTracker getClosestPointTracker() {
+        return closestPointTracker;
+    }
+
+    /**
+     * Sets the {@link ClosestPointGrid} to seed the closest point search from while its parametric is being followed.
+     * Once the path is regenerated, or while the robot is outside the grid, the closest point is searched for as usual
+     * @param closestPointGrid {@link ClosestPointGrid} built for the parametric of the path, or null to not use one
+     */
+    public void setClosestPointGrid(ClosestPointGrid closestPointGrid) {
+        this.closestPointGrid = closestPointGrid;
+    }
+
+    /**
+     * Builds a {@link ClosestPointGrid} over the current parametric and uses it
+     * @param margin distance in meters the grid extends past the parametric on every side
+     * @param cellSize width and height of each cell in meters
+     * @return the built {@link ClosestPointGrid}
+     */
+    public ClosestPointGrid generateClosestPointGrid(double margin, double cellSize) {
+        closestPointGrid = new ClosestPointGrid(parametric, margin, cellSize);
+        return closestPointGrid;
+    }
+
+    /**
+     * Returns the {@link ClosestPointGrid} the closest point search is seeded from
+     * @return the {@link ClosestPointGrid}, or null if none is used
+     */
+    public ClosestPointGrid getClosestPointGrid() {
+        return closestPointGrid;
+    }
+
+    /**
+     * Updates the distance traveled to the closest point. In incremental mode only the interval between the previous
+     * and current closest point is integrated, otherwise the parametric is integrated from t=0
+     */
+    protected void updateDistanceTraveled() {
+        if(incrementalDistance && distanceParametric == parametric) {
+            if(closestPointT >= distanceT) {
+                distanceTraveled += integrateLength(distanceT, closestPointT);
+            } else {
+                distanceTraveled -= integrateLength(closestPointT, distanceT);
+            }
+        } else {
+            //first update or the path was regenerated
+            distanceTraveled = integrateLength(0, closestPointT);
+            distanceParametric = parametric;
+        }
+        distanceT = closestPointT;
+    }
+
+    /**
+     * Returns the length of the parametric from a start to end t parameter, with the adaptive quadrature if a tolerance is set
+     * @param start t parameter to start length calculation
+     * @param end t parameter to end length calculation
+     * @return the length of the parametric from a start to end t parameter
+     */
+    protected double integrateLength(double start, double end) {
+        if(quadratureTolerance > 0) {
+            return parametric.getAdaptiveQuadratureLength(start, end, quadratureTolerance, quadratureResult).getLength();
+        }
+        return parametric.getGaussianQuadratureLength(start, end, 17);
+    }
+
+    /**
+     * Sets the tolerance of the adaptive quadrature the distance traveled is integrated with, trading accuracy against
+     * derivative evaluations instead of always using the fixed 17 point rule
+     * @param quadratureTolerance maximum estimated absolute error per integration in the units of the parametric,
+     *                            such as {@link Parametric#DEFAULT_QUADRATURE_TOLERANCE}, or 0 to use the fixed 17 point rule
+     */
+    public void setQuadratureTolerance(double quadratureTolerance) {
+        this.quadratureTolerance = quadratureTolerance;
+    }
+
+    /**
+     * Returns the tolerance of the adaptive quadrature the distance traveled is integrated with
+     * @return the tolerance in the units of the parametric, or 0 if the fixed 17 point rule is used
+     */
+    public double getQuadratureTolerance() {
+        return quadratureTolerance;
+    }
+
+    /**
+     * Returns the {@link QuadratureResult} of the last adaptive integration of the distance traveled, with the number
+     * of derivative evaluations it spent
+     * @return the {@link QuadratureResult} of the last adaptive integration
+     */
+    public QuadratureResult getQuadratureResult() {
+        return quadratureResult;
+    }
+
+    /**
+     * Sets whether the distance traveled is tracked incrementally from the previous closest point instead of
+     * being integrated from t=0 on every update
+     * @param incrementalDistance true to track the distance traveled incrementally
+     */
+    public void setIncrementalDistance(boolean incrementalDistance) {
+        this.incrementalDistance = incrementalDistance;
+        this.distanceParametric = null;
+    }
+
+    /**
+     * Returns whether the distance traveled is tracked incrementally
+     * @return whether the distance traveled is tracked incrementally
+     */
+    public boolean isIncrementalDistance() {
+        return incrementalDistance;
     }
 
     /**
@@ -118,9 +571,10 @@ public class Path {
      * @return the distance of a {@link Pose2D} from the spline
      */
     public double distanceFromSpline(Parametric parametric, Pose2D robotPose, int newtonsSteps) {
-        closestPointT = parametric.findClosestPointOnSpline(robotPose.getPosition(), newtonsSteps, 5);
+        closestPointT = parametric.findClosestPointOnSpline(robotPose.getPosition(), newtonsSteps, 5, derivatives);
+        closestPointParametric = parametric;
 
-        return parametric.getPoint(closestPointT).distance(robotPose.getPosition());
+        return parametric.getPoint(closestPointT, scratchPoint).distance(robotPose.getPosition());
     }
 
     /**
@@ -129,7 +583,7 @@ public class Path {
      * @return the curvature of the parametric at t
      */
     public double getCurvature(double t) {
-        return parametric.getCurvature(t);
+        return parametric.getCurvature(t, derivatives);
     }
 
     /**
@@ -137,7 +591,7 @@ public class Path {
      * @return the curvature of the parametric at the closest point
      */
     public double getCurvature() {
-        return parametric.getCurvature(closestPointT);
+        return parametric.getCurvature(closestPointT, derivatives);
     }
 
     /**
@@ -181,7 +635,7 @@ public class Path {
      * @return whether the path is finished based on the end threshold
      */
     public boolean isFinished(Pose2D robotPosition, double threshold) {
-        return (robotPosition.getPosition().distance(parametric.getPoint(1.0)) <= threshold) || distanceToEnd <= 0;
+        return (robotPosition.getPosition().distance(parametric.getPoint(1.0, scratchPoint)) <= threshold) || distanceToEnd <= 0;
     }
 
     /**
@@ -190,6 +644,47 @@ public class Path {
      */
     public Parametric getParametric() { return parametric; }
 
+    /**
+     * Returns the t of the closest point on the parametric to the robot from the last update
+     * @return the t of the closest point on the parametric to the robot from the last update
+     */
+    public double getClosestPointT() {
+        return closestPointT;
+    }
+
+    /**
+     * Returns the parametric the closest point t of the last update is on, which is the parametric before the update
+     * if the update regenerated it
+     * @return the parametric of the closest point t, or null before the first update
+     */
+    public Parametric getClosestPointParametric() {
+        return closestPointParametric;
+    }
+
+    /**
+     * Returns the linear velocity planned in the last update
+     * @return the linear velocity planned in the last update in meters/second
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Returns the distance traveled along the parametric as of the last update
+     * @return the distance traveled along the parametric in meters
+     */
+    public double getDistanceTraveled() {
+        return distanceTraveled;
+    }
+
+    /**
+     * Returns the number of times the parametric has been regenerated because the robot strayed past the adjust threshold
+     * @return the number of times the parametric has been regenerated
+     */
+    public int getRegenerations() {
+        return regenerations;
+    }
+
     /**
      * Returns the maximum acceleration of the motion profile
      * @return the maximum acceleration of the motion profile
@@ -0,0 +1,19 @@
+package com.github.mittyrobotics.pathfollowing;
+
+/**
+ * Runs one update of a {@link Path} with the controller specific parameters, such as
+ * {@code (path, pose, dt, out) -> path.update(pose, dt, lookahead, adjust_threshold, newtonsSteps, trackwidth, out)}
+ * @param <T> type of {@link Path} to update
+ */
+@FunctionalInterface
+public interface PathFollower<T extends Path> {
+    /**
+     * Updates an existing {@link DifferentialDriveState} to travel on the path based on current robot pose
+     * @param path path to update
+     * @param robotPose current robot {@link Pose2D}
+     * @param dt time passed since last update
+     * @param out {@link DifferentialDriveState} to update
+     * @return out
+     */
+    DifferentialDriveState update(T path, Pose2D robotPose, double dt, DifferentialDriveState out);
+}
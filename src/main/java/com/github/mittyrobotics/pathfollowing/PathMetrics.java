@@ -0,0 +1,244 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PathMetrics {
+    /**
+     * Stages of an update
+     */
+    public static final int CLOSEST_POINT = 0;
+    public static final int DISTANCE_TRAVELED = 1;
+    public static final int TARGET = 2;
+    public static final int VELOCITY = 3;
+    public static final int CONTROLLER = 4;
+    public static final int REGENERATION = 5;
+    public static final int STAGES = 6;
+
+    private static final String[] STAGE_NAMES = {
+            "closest point", "distance traveled", "target", "velocity", "controller", "regeneration"
+    };
+
+    /**
+     * Number of updates with metrics in progress on any thread, and the Newton's method steps taken by each thread while
+     * it is not 0. Parametrics are only read while they are evaluated, so they can be shared between threads, and the
+     * steps are counted per thread instead of on them
+     */
+    private static final AtomicInteger ACTIVE_UPDATES = new AtomicInteger();
+    private static final ThreadLocal<long[]> NEWTON_ITERATIONS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Time spent and Newton's method steps taken in each stage of the last update
+     */
+    private final long[] stageNanos = new long[STAGES];
+    private final long[] stageNewtonIterations = new long[STAGES];
+
+    /**
+     * Time spent and Newton's method steps taken in each stage over every update since the last reset
+     */
+    private final long[] totalStageNanos = new long[STAGES];
+    private final long[] totalStageNewtonIterations = new long[STAGES];
+
+    /**
+     * Time spent in the last update, the most time spent in one update and over every update, in nanoseconds
+     */
+    private long updateNanos, maxUpdateNanos, totalUpdateNanos;
+
+    /**
+     * Number of updates and regenerations since the last reset, and whether the last update regenerated the parametric
+     */
+    private long updates, regenerations;
+    private boolean regenerated;
+
+    /**
+     * State of the update in progress: whether one is in progress, and the time and Newton's method steps of the
+     * updating thread at the start of the update and of the current stage
+     */
+    private boolean updating;
+    private long updateStart, stageStart, stageNewtonStart;
+
+    /**
+     * Create new metrics with all 0 values
+     */
+    public PathMetrics() {}
+
+    /**
+     * Counts a Newton's method step taken by the current thread if any update with metrics is in progress, otherwise
+     * only reads the number of updates in progress
+     */
+    static void countNewtonIteration() {
+        if(ACTIVE_UPDATES.get() > 0) NEWTON_ITERATIONS.get()[0]++;
+    }
+
+    /**
+     * Starts timing an update and counting the Newton's method steps taken by the current thread, which must be the one
+     * that ends it
+     */
+    public void beginUpdate() {
+        if(!updating) {
+            updating = true;
+            ACTIVE_UPDATES.incrementAndGet();
+        }
+        regenerated = false;
+        updateStart = System.nanoTime();
+        stageStart = updateStart;
+        stageNewtonStart = NEWTON_ITERATIONS.get()[0];
+    }
+
+    /**
+     * Records the time and Newton's method steps since the end of the previous stage as a stage of the update
+     * @param stage index of the stage, such as {@link #CLOSEST_POINT}
+     */
+    public void endStage(int stage) {
+        long now = System.nanoTime();
+        long newtonIterations = NEWTON_ITERATIONS.get()[0];
+        stageNanos[stage] = now - stageStart;
+        stageNewtonIterations[stage] = newtonIterations - stageNewtonStart;
+        totalStageNanos[stage] += stageNanos[stage];
+        totalStageNewtonIterations[stage] += stageNewtonIterations[stage];
+        stageStart = now;
+        stageNewtonStart = newtonIterations;
+    }
+
+    /**
+     * Finishes timing an update
+     * @param regenerated whether the update regenerated the parametric
+     */
+    public void endUpdate(boolean regenerated) {
+        updateNanos = System.nanoTime() - updateStart;
+        maxUpdateNanos = Math.max(maxUpdateNanos, updateNanos);
+        totalUpdateNanos += updateNanos;
+        updates++;
+        this.regenerated = regenerated;
+        if(regenerated) regenerations++;
+        if(updating) {
+            updating = false;
+            ACTIVE_UPDATES.decrementAndGet();
+        }
+    }
+
+    /**
+     * Clears the totals
+     */
+    public void reset() {
+        for(int i = 0; i < STAGES; i++) {
+            stageNanos[i] = 0;
+            stageNewtonIterations[i] = 0;
+            totalStageNanos[i] = 0;
+            totalStageNewtonIterations[i] = 0;
+        }
+        updateNanos = 0;
+        maxUpdateNanos = 0;
+        totalUpdateNanos = 0;
+        updates = 0;
+        regenerations = 0;
+        regenerated = false;
+    }
+
+    /**
+     * Returns the time spent in a stage of the last update
+     * @param stage index of the stage, such as {@link #CLOSEST_POINT}
+     * @return the time spent in the stage in nanoseconds
+     */
+    public long getStageNanos(int stage) {
+        return stageNanos[stage];
+    }
+
+    /**
+     * Returns the Newton's method steps taken in a stage of the last update
+     * @param stage index of the stage, such as {@link #CLOSEST_POINT}
+     * @return the number of Newton's method steps taken in the stage
+     */
+    public long getStageNewtonIterations(int stage) {
+        return stageNewtonIterations[stage];
+    }
+
+    /**
+     * Returns the time spent in a stage over every update since the last reset
+     * @param stage index of the stage, such as {@link #CLOSEST_POINT}
+     * @return the total time spent in the stage in nanoseconds
+     */
+    public long getTotalStageNanos(int stage) {
+        return totalStageNanos[stage];
+    }
+
+    /**
+     * Returns the Newton's method steps taken in a stage over every update since the last reset
+     * @param stage index of the stage, such as {@link #CLOSEST_POINT}
+     * @return the total number of Newton's method steps taken in the stage
+     */
+    public long getTotalStageNewtonIterations(int stage) {
+        return totalStageNewtonIterations[stage];
+    }
+
+    /**
+     * Returns the time spent in the last update
+     * @return the time spent in the last update in nanoseconds
+     */
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    /**
+     * Returns the most time spent in one update since the last reset
+     * @return the most time spent in one update in nanoseconds
+     */
+    public long getMaxUpdateNanos() {
+        return maxUpdateNanos;
+    }
+
+    /**
+     * Returns the time spent over every update since the last reset
+     * @return the total time spent in nanoseconds
+     */
+    public long getTotalUpdateNanos() {
+        return totalUpdateNanos;
+    }
+
+    /**
+     * Returns the number of updates since the last reset
+     * @return the number of updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the number of regenerations since the last reset
+     * @return the number of regenerations
+     */
+    public long getRegenerations() {
+        return regenerations;
+    }
+
+    /**
+     * Returns whether the last update regenerated the parametric
+     * @return whether the last update regenerated the parametric
+     */
+    public boolean isRegenerated() {
+        return regenerated;
+    }
+
+    /**
+     * Returns the name of a stage
+     * @param stage index of the stage, such as {@link #CLOSEST_POINT}
+     * @return the name of the stage
+     */
+    public static String getStageName(int stage) {
+        return STAGE_NAMES[stage];
+    }
+
+    /**
+     * Returns string representation of the last update in microseconds
+     * @return string representation of the last update in microseconds
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("update = " + updateNanos / 1e3 + " us");
+        for(int i = 0; i < STAGES; i++) {
+            builder.append(", ").append(STAGE_NAMES[i]).append(" = ").append(stageNanos[i] / 1e3).append(" us");
+            if(stageNewtonIterations[i] > 0) builder.append(" (").append(stageNewtonIterations[i]).append(" newton)");
+        }
+        if(regenerated) builder.append(", regenerated");
+        return builder.toString();
+    }
+}
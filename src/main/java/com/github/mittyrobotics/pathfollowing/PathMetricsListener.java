@@ -0,0 +1,14 @@
+package com.github.mittyrobotics.pathfollowing;
+
+/**
+ * Receives the {@link PathMetrics} of a {@link Path} after every update it is enabled for
+ */
+@FunctionalInterface
+public interface PathMetricsListener {
+    /**
+     * Called at the end of every update, on the thread running the update
+     * @param path path that was updated
+     * @param metrics metrics of the path, reused by later updates so values should be copied out if they are kept
+     */
+    void onUpdate(Path path, PathMetrics metrics);
+}
@@ -45,6 +45,16 @@ public class Pose2D {
         this.angle = new Angle(angle);
     }
 
+    /**
+     * Create a new pose with the same position and angle as another {@link Pose2D}, which is not changed when the
+     * other pose is moved
+     * @param pose {@link Pose2D} to copy
+     */
+    public Pose2D(Pose2D pose) {
+        this.position = new Point2D(pose.getPosition().getX(), pose.getPosition().getY());
+        this.angle = Angle.fromStandardized(pose.getAngle().getRadians());
+    }
+
     /**
      * Returns the distance of this pose from another {@link Pose2D}
      * @param other {@link Pose2D} pose to get distance from
@@ -0,0 +1,165 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class PreviewVelocityQueue {
+    /**
+     * Default number of previews the queue can hold before growing
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * Max deceleration used to limit the current velocity by each preview
+     */
+    private final double maxDeceleration;
+
+    /**
+     * Ring buffer of previews sorted by increasing distance and increasing key, with the key being
+     * velocity^2 + 2 * maxDeceleration * distance
+     */
+    private double[] distances, velocities, keys;
+    private int head, size, mask;
+
+    /**
+     * Creates a new empty preview velocity queue
+     * @param maxDeceleration max deceleration of the motion profile
+     * @param capacity number of previews the queue can hold before growing, rounded up to a power of 2
+     */
+    public PreviewVelocityQueue(double maxDeceleration, int capacity) {
+        this.maxDeceleration = maxDeceleration;
+        int length = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        distances = new double[length];
+        velocities = new double[length];
+        keys = new double[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Creates a new empty preview velocity queue with the default capacity
+     * @param maxDeceleration max deceleration of the motion profile
+     */
+    public PreviewVelocityQueue(double maxDeceleration) {
+        this(maxDeceleration, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Adds a preview of the max velocity at a distance. Previews that can never limit the velocity more than another
+     * preview that lasts at least as long are dropped, so adding is amortized O(1) while preview distances increase
+     * @param distance distance along the parametric of the preview
+     * @param velocity max velocity at the preview
+     */
+    public void add(double distance, double velocity) {
+        //vf^2 = vi^2 + 2ad, the preview with the smallest key limits the current velocity the most at any distance
+        double key = velocity * velocity + 2 * maxDeceleration * distance;
+
+        //first preview farther than the new one, usually none
+        int farther = size;
+        while(farther > 0 && distances[index(farther - 1)] > distance) farther--;
+
+        //a farther preview with a smaller key outlasts the new one and is always at least as limiting
+        if(farther < size && keys[index(farther)] <= key) return;
+
+        //closer previews with larger keys expire first and are never more limiting than the new one
+        int start = farther;
+        while(start > 0 && keys[index(start - 1)] >= key) start--;
+
+        int removed = farther - start;
+        if(removed == 0) {
+            if(size == distances.length) grow();
+            for(int i = size; i > start; i--) move(i - 1, i);
+            size++;
+        } else {
+            for(int i = farther; i < size; i++) move(i, i - removed + 1);
+            size -= removed - 1;
+        }
+
+        int i = index(start);
+        distances[i] = distance;
+        velocities[i] = velocity;
+        keys[i] = key;
+    }
+
+    /**
+     * Removes the previews at or before a distance
+     * @param distance distance along the parametric that has been traveled
+     */
+    public void removeUpTo(double distance) {
+        while(size > 0 && distances[head] <= distance) {
+            head = (head + 1) & mask;
+            size--;
+        }
+    }
+
+    /**
+     * Returns the maximum possible velocity at a distance to still be able to slow down to every preview
+     * @param distance distance along the parametric that has been traveled, after removing the previews up to it
+     * @return the maximum possible velocity, or infinity if there are no previews
+     */
+    public double getMaxVelocity(double distance) {
+        if(size == 0) return Double.POSITIVE_INFINITY;
+
+        //vf^2 = vi^2 + 2ad, find vi (deceleration = -a)
+        double distanceToPreview = distances[head] - distance;
+        double velocity = velocities[head];
+        if(distanceToPreview > 0) return Math.sqrt(velocity * velocity + 2 * maxDeceleration * distanceToPreview);
+        else return 0;
+    }
+
+    /**
+     * Removes all previews
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of previews in the queue
+     * @return the number of previews in the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the max deceleration used to limit the current velocity by each preview
+     * @return the max deceleration of the motion profile
+     */
+    public double getMaxDeceleration() {
+        return maxDeceleration;
+    }
+
+    /**
+     * Returns the array index of the preview at a position from the front of the queue
+     */
+    private int index(int position) {
+        return (head + position) & mask;
+    }
+
+    /**
+     * Copies the preview at one position from the front of the queue to another
+     */
+    private void move(int from, int to) {
+        int i = index(from), j = index(to);
+        distances[j] = distances[i];
+        velocities[j] = velocities[i];
+        keys[j] = keys[i];
+    }
+
+    /**
+     * Doubles the capacity of the ring buffer, moving the previews to the start of the new arrays
+     */
+    private void grow() {
+        double[] newDistances = new double[distances.length * 2];
+        double[] newVelocities = new double[newDistances.length];
+        double[] newKeys = new double[newDistances.length];
+        for(int i = 0; i < size; i++) {
+            newDistances[i] = distances[index(i)];
+            newVelocities[i] = velocities[index(i)];
+            newKeys[i] = keys[index(i)];
+        }
+        distances = newDistances;
+        velocities = newVelocities;
+        keys = newKeys;
+        head = 0;
+        mask = newDistances.length - 1;
+    }
+}
@@ -8,6 +8,7 @@ public class PurePursuitPath extends Path {
      */
     protected Circle tangentCircle = new Circle();
     protected Point2D lookaheadPoint = new Point2D();
+    protected Pose2D endPose = new Pose2D();
 
     /**
      * Create a new pure pursuit path with motion profile
@@ -56,53 +57,40 @@ public class PurePursuitPath extends Path {
      * @return {@link DifferentialDriveState} based on path and current robot pose
      */
     public DifferentialDriveState update(Pose2D robotPose, double dt, double lookahead, double adjust_threshold, int newtonsSteps, double trackwidth) {
+        return update(robotPose, dt, lookahead, adjust_threshold, newtonsSteps, trackwidth, new DifferentialDriveState());
+    }
+
+    /**
+     * Updates an existing {@link DifferentialDriveState} to continue on the pure pursuit path based on current robot pose
+     * @param robotPose current robot {@link Pose2D}
+     * @param dt distance passed since last update
+     * @param lookahead pure pursuit lookahead in meters
+     * @param adjust_threshold threshold for adaptively regenerating the quintic hermite spline in meters
+     * @param newtonsSteps number of steps to run Newton's method for finding closest point on spline
+     * @param trackwidth width of drivetrain in meters
+     * @param out {@link DifferentialDriveState} to update
+     * @return out
+     */
+    public DifferentialDriveState update(Pose2D robotPose, double dt, double lookahead, double adjust_threshold, int newtonsSteps, double trackwidth, DifferentialDriveState out) {
+        //swap in a finished background regeneration before anything reads the parametric
+        boolean regenerated = applyPendingRegeneration();
+        beginMetrics();
+
         //get t associated with closest point on spline
-        closestPointT = parametric.findClosestPointOnSpline(robotPose.getPosition(), newtonsSteps, 5);
+        updateClosestPoint(robotPose, dt, newtonsSteps);
+        endStage(PathMetrics.CLOSEST_POINT);
 
         //get distance traveled
-        distanceTraveled = parametric.getGaussianQuadratureLength(closestPointT, 17);
+        updateDistanceTraveled();
+        endStage(PathMetrics.DISTANCE_TRAVELED);
 
         //get the lookahead point
-        lookaheadPoint = getLookahead(distanceTraveled, lookahead);
-
-        //limit velocity by max velocity and max acceleration
-        //v = a * t
-        velocity = Math.min(prevVelocity + maxAcceleration * dt, maxVelocity);
-
-        //angular velocity preview distance based on how much distance it takes to completely slow down (worst case)
-        double previewDistance = distanceToSlowdown(prevVelocity, 0, maxDeceleration);
-        //get preview t value associated with that distance
-        double previewT = parametric.getTFromLength(distanceTraveled + previewDistance);
-        //find the maximum possible velocity at that t value
-        double maxVelocityAtPreview = maxVelocityFromT(previewT);
-
-        //add previewed max velocity and preview distance to array
-        previewVelocities.add(new Vector2D(maxVelocityAtPreview, distanceTraveled + previewDistance));
-        //remove array values with distance less than traveled distance
-        clearOldPreviewed();
-
-        //update max possible current velocity from previews
-        velocity = Math.min(getMaxVelocityFromPreviews(), velocity);
+        getLookahead(distanceTraveled, lookahead, lookaheadPoint);
+        endStage(PathMetrics.TARGET);
 
-        //limit current velocity based on max angular velocity
-        if(Double.isFinite(purePursuitRadius)) {
-            //get max velocity given max angular velocity and curvature
-            double maxCurvatureVelocity = maxVelocityFromRadius(purePursuitRadius);
-
-            velocity = Math.min(velocity, maxCurvatureVelocity);
-        }
-
-        //distance to end
-        distanceToEnd = parametric.getLength() - distanceTraveled;
-
-        //max possible current velocity given max deceleration
-        maxVelocityToEnd = maxVelocityFromDistance(distanceToEnd, endVelocity, maxDeceleration);
-        velocity = Math.min(velocity, maxVelocityToEnd);
-
-        //limit deceleration to max deceleration
-        velocity = Math.max(prevVelocity - maxDeceleration * dt, velocity);
-
-        prevVelocity = velocity;
+        //plan velocity, limited by the radius of the previous tangent circle
+        updateVelocity(dt, purePursuitRadius);
+        endStage(PathMetrics.VELOCITY);
 
         //find circle tangent to current pose and lookahead
         tangentCircle.updateFromPoseAndPoint(robotPose, lookaheadPoint);
@@ -110,22 +98,16 @@ public class PurePursuitPath extends Path {
         //find if lookahead is turning right or left
         turnRight = (tangentCircle.orientationOfPoseAndPoint(robotPose, lookaheadPoint) == 1);
 
+        //generate a differential drive state with pure pursuit, which does not depend on the parametric
+        PurePursuitController.purePursuit(purePursuitRadius, velocity, turnRight, trackwidth, out);
+        endStage(PathMetrics.CONTROLLER);
 
-        //adaptively regenerate path if distance from spline is greater than the adjust threshold
-        if(parametric.getPoint(closestPointT).distance(robotPose.getPosition()) > adjust_threshold) {
-            //current velocity
-            Vector2D curVel = new Vector2D(velocity * robotPose.getAngle().cos(), velocity * robotPose.getAngle().sin());
-            //current acceleration
-            double acc = (velocity - prevVelocity) / dt;
-            Vector2D curAcc = new Vector2D(acc * robotPose.getAngle().cos(), acc * robotPose.getAngle().sin());
-
-            //generate new path
-            parametric = parametric.getNewPath(robotPose, curVel, curAcc);
-            distanceToEnd = parametric.getLength();
-        }
+        //regenerate the parametric if the robot drifted past the adjust threshold
+        regenerated |= updateRegeneration(robotPose, dt, adjust_threshold);
+        endStage(PathMetrics.REGENERATION);
 
-        //generate a differential drive state with pure pursuit
-        return PurePursuitController.purePursuit(purePursuitRadius, velocity, turnRight, trackwidth);
+        endMetrics(regenerated);
+        return out;
     }
 
     /**
@@ -135,15 +117,29 @@ public class PurePursuitPath extends Path {
      * @return the lookahead {@link Point2D} based on current distance traveled
      */
     public Point2D getLookahead(double distanceTraveled, double lookahead) {
+        return getLookahead(distanceTraveled, lookahead, new Point2D());
+    }
+
+    /**
+     * Writes the lookahead {@link Point2D} based on current distance traveled into an existing {@link Point2D}
+     * @param distanceTraveled distance traveled on the spline
+     * @param lookahead lookahead distance in meters
+     * @param out {@link Point2D} to write the lookahead into
+     * @return out
+     */
+    public Point2D getLookahead(double distanceTraveled, double lookahead, Point2D out) {
         if(distanceTraveled + lookahead > parametric.getLength()) {
             //if distance traveled is greater than the spline, return the corresponding point
             //along the straight line continuation from the last point on the spline
-            Angle angle = parametric.getAngle(1);
-            Point2D endpoint = parametric.getPoint(1);
+            parametric.getPose(1, endPose, derivatives);
+            Angle angle = endPose.getAngle();
+            Point2D endpoint = endPose.getPosition();
             double distanceLeft = distanceTraveled + lookahead - parametric.getLength();
-            return new Point2D(endpoint.getX() + distanceLeft * angle.cos(), endpoint.getY() + distanceLeft * angle.sin());
+            out.x = endpoint.getX() + distanceLeft * angle.cos();
+            out.y = endpoint.getY() + distanceLeft * angle.sin();
+            return out;
         } else {
-            return parametric.getPoint(parametric.getTFromLength(distanceTraveled + lookahead));
+            return parametric.getPoint(parametric.getTFromLength(distanceTraveled + lookahead), out);
         }
     }
 
@@ -155,8 +151,8 @@ public class PurePursuitPath extends Path {
      * @return the lookahead {@link Point2D} based on robot {@link Pose2D}
      */
     public Point2D getLookaheadFromRobotPose(Pose2D robotPose, double lookahead, int newtonsSteps) {
-        closestPointT = parametric.findClosestPointOnSpline(robotPose.getPosition(), newtonsSteps, 5);
-        distanceTraveled = parametric.getGaussianQuadratureLength(closestPointT, 17);
+        updateClosestPoint(robotPose, 0, newtonsSteps);
+        updateDistanceTraveled();
 
         return getLookahead(distanceTraveled, lookahead);
     }
@@ -0,0 +1,84 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class QuadratureResult {
+    /**
+     * Integrated length, estimated absolute error of the length, number of derivative evaluations spent and number of
+     * intervals the integration was split into
+     */
+    private double length, errorEstimate;
+    private int evaluations, intervals;
+
+    /**
+     * Create a new {@link QuadratureResult} with all 0 values
+     */
+    public QuadratureResult() {}
+
+    /**
+     * Sets all values back to 0 before a new integration
+     */
+    public void reset() {
+        length = 0;
+        errorEstimate = 0;
+        evaluations = 0;
+        intervals = 0;
+    }
+
+    /**
+     * Adds an accepted interval to the result
+     * @param length length of the interval
+     * @param errorEstimate estimated absolute error of the length of the interval
+     * @param evaluations number of derivative evaluations spent on the interval
+     */
+    public void addInterval(double length, double errorEstimate, int evaluations) {
+        this.length += length;
+        this.errorEstimate += errorEstimate;
+        this.evaluations += evaluations;
+        this.intervals++;
+    }
+
+    /**
+     * Adds derivative evaluations that did not produce an accepted interval, such as those of a rejected interval
+     * @param evaluations number of derivative evaluations spent
+     */
+    public void addEvaluations(int evaluations) {
+        this.evaluations += evaluations;
+    }
+
+    /**
+     * Returns the integrated length
+     * @return the integrated length
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the estimated absolute error of the length, the sum of the estimates of the accepted intervals
+     * @return the estimated absolute error of the length
+     */
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+
+    /**
+     * Returns the number of derivative evaluations spent, including those of rejected intervals
+     * @return the number of derivative evaluations spent
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * Returns the number of intervals the integration was split into
+     * @return the number of accepted intervals
+     */
+    public int getIntervals() {
+        return intervals;
+    }
+
+    @Override
+    public String toString() {
+        return "length = " + length + ", error estimate = " + errorEstimate + ", evaluations = " + evaluations +
+                ", intervals = " + intervals;
+    }
+}
@@ -10,6 +10,17 @@ public class QuinticHermiteSpline extends Parametric {
     private Vector2D velocity0, velocity1;
     private Vector2D acceleration0, acceleration1;
 
+    /**
+     * Power basis coefficients c0..c5 of x(t) followed by c0..c5 of y(t), kept in sync with the poses, velocities, and accelerations
+     */
+    private final double[] coefficients = new double[12];
+
+    /**
+     * Whether the spline changed since its length was last integrated, so the length is only integrated once it is used
+     * instead of after every change. Volatile so a length integrated on one thread is seen with it on others
+     */
+    private volatile boolean lengthDirty;
+
     /**
      * Create a new Quintic Hermite Spline based on starting and ending poses, velocities, and accelerations
      * @param pose0 starting {@link Pose2D}
@@ -21,6 +32,23 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public QuinticHermiteSpline(Pose2D pose0, Pose2D pose1, Vector2D velocity0, Vector2D velocity1,
                                 Vector2D acceleration0, Vector2D acceleration1) {
+        this(pose0, pose1, velocity0, velocity1, acceleration0, acceleration1, 0);
+        this.lengthDirty = true;
+    }
+
+    /**
+     * Create a new Quintic Hermite Spline with a length that is already known, such as one read from a
+     * {@link TrajectoryFile}, instead of integrating it
+     * @param pose0 starting {@link Pose2D}
+     * @param pose1 ending {@link Pose2D}
+     * @param velocity0 starting {@link Vector2D} of velocity
+     * @param velocity1 ending {@link Vector2D} of velocity
+     * @param acceleration0 starting {@link Vector2D} of acceleration
+     * @param acceleration1 ending {@link Vector2D} of acceleration
+     * @param length length of the spline in meters
+     */
+    public QuinticHermiteSpline(Pose2D pose0, Pose2D pose1, Vector2D velocity0, Vector2D velocity1,
+                                Vector2D acceleration0, Vector2D acceleration1, double length) {
         this.pose0 = pose0;
         this.pose1 = pose1;
         this.velocity0 = velocity0;
@@ -28,8 +56,8 @@ public class QuinticHermiteSpline extends Parametric {
         this.acceleration0 = acceleration0;
         this.acceleration1 = acceleration1;
 
-        this.length = getGaussianQuadratureLength(17);
-
+        updateCoefficients();
+        this.length = length;
     }
 
     /**
@@ -67,6 +95,7 @@ public class QuinticHermiteSpline extends Parametric {
                 getAccelerationMagnitudeFromCurvature(curvature0, pose0.distance(pose1)));
         this.acceleration1 = new Vector2D(pose1.getAngle(),
                 getAccelerationMagnitudeFromCurvature(curvature1, pose1.distance(pose0)));
+        changed();
     }
 
     /**
@@ -77,16 +106,7 @@ public class QuinticHermiteSpline extends Parametric {
     @Override
     public Point2D getPoint(double t) {
         if(t >= 0 && t <= 1) {
-            //basis functions: https://www.rose-hulman.edu/~finn/CCLI/Notes/day09.pdf page 9-4
-            double h0 = -6 * t * t * t * t * t + 15 * t * t * t * t - 10 * t * t * t + 1;
-            double h1 = -3 * t * t * t * t * t + 8 * t * t * t * t - 6 * t * t * t + t;
-            double h2 = -(t * t * t * t * t) / 2 + 3 * t * t * t * t / 2 - 3 * t * t * t / 2 + t * t / 2;
-            double h3 = t * t * t * t * t / 2 - t * t * t * t + t * t * t / 2;
-            double h4 = -3 * t * t * t * t * t + 7 * t * t * t * t - 4 * t * t * t;
-            double h5 = 6 * t * t * t * t * t - 15 * t * t * t * t + 10 * t * t * t;
-
-            return getPointFromCoefficients(h0, h1, h2, h3, h4, h5);
-
+            return new Point2D(getX(t, 0), getY(t, 0));
         } else if (t < 0) {
             return pose0.getPosition();
         } else {
@@ -95,58 +115,344 @@ public class QuinticHermiteSpline extends Parametric {
     }
 
     /**
-     * Returns the {@link Angle} of the spline at a t parameter
-     * @param t t to get associated {@link Angle}
-     * @return the {@link Angle} of the spline at a t parameter
+     * Writes the {@link Point2D} on the spline associated with the t parameter into an existing {@link Point2D}
+     * @param t t to get associated {@link Point2D}
+     * @param out {@link Point2D} to write the coordinates into
+     * @return out
      */
     @Override
-    public Angle getAngle(double t) {
-        return new Angle(getDerivative(t, 1));
+    public Point2D getPoint(double t, Point2D out) {
+        out.x = getPointX(t);
+        out.y = getPointY(t);
+        return out;
     }
 
     /**
-     * Returns the {@link Pose2D} of the spline at a t parameter
-     * @param t t to get associated {@link Pose2D}
-     * @return the {@link Pose2D} of the spline at a t parameter
+     * Returns the n-th derivative of the spline at a t parameter as a {@link Point2D}
+     * @param t t to get associated nth derivative
+     * @param n degree of the derivative
+     * @return {@link Point2D} representing the n-th derivative of the spline at a t parameter
      */
     @Override
-    public Pose2D getPose(double t) {
-        return new Pose2D(getPoint(t), getAngle(t));
+    public Point2D getDerivative(double t, int n) {
+        return getDerivative(t, n, new Point2D());
     }
 
     /**
-     * Returns the n-th derivative of the spline at a t parameter as a {@link Point2D}
+     * Writes the n-th derivative of the spline at a t parameter into an existing {@link Point2D}
      * @param t t to get associated nth derivative
      * @param n degree of the derivative
-     * @return {@link Point2D} representing the n-th derivative of the spline at a t parameter
+     * @param out {@link Point2D} to write the derivative into
+     * @return out
      */
     @Override
-    public Point2D getDerivative(double t, int n) {
+    public Point2D getDerivative(double t, int n, Point2D out) {
+        //only the 1st and 2nd derivatives are supported, others are 0
+        out.x = n > 0 ? getX(t, n) : 0;
+        out.y = n > 0 ? getY(t, n) : 0;
+        return out;
+    }
+
+    /**
+     * Evaluates the point and its derivatives up to an order at t in a single Horner pass per coordinate,
+     * written into an array as {x, y, x', y', x'', y'', ...}. Derivatives past the 2nd are 0
+     * @param t t to evaluate at
+     * @param order highest derivative to evaluate, 0 for only the point
+     * @param out array of at least 2 * (order + 1) to write into
+     * @return out
+     */
+    @Override
+    public double[] evaluate(double t, int order, double[] out) {
+        if(order <= 0) {
+            out[0] = getPointX(t);
+            out[1] = getPointY(t);
+            return out;
+        }
+
+        evaluate(0, t, order, out, 0);
+        evaluate(6, t, order, out, 1);
+        if(!(t >= 0 && t <= 1)) {
+            //clamp the point to the starting and ending poses like getPoint
+            Point2D end = t < 0 ? pose0.getPosition() : pose1.getPosition();
+            out[0] = end.getX();
+            out[1] = end.getY();
+        }
+        return out;
+    }
+
+    /**
+     * Returns the magnitude of the first derivative at t
+     * @param t t to get the magnitude of the first derivative at
+     * @return the magnitude of the first derivative at t
+     */
+    @Override
+    public double getSpeed(double t) {
+        double x = getX(t, 1);
+        double y = getY(t, 1);
+        return Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Evaluates the points at a range of t values from the power basis coefficients in a branch-free loop,
+     * then clamps t values outside [0, 1] to the starting and ending poses like {@link #getPoint(double)}
+     * @param ts t values to evaluate
+     * @param xs array to write the x coordinates into
+     * @param ys array to write the y coordinates into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    @Override
+    public void evaluateBatch(double[] ts, double[] xs, double[] ys, int offset, int length) {
+        evaluateBatch(ts, offset, xs, ys, offset, length);
+    }
+
+    /**
+     * Evaluates the points at a range of t values like {@link #evaluateBatch(double[], double[], double[], int, int)},
+     * reading the t values from their own offset so a caller can convert a slice of t values into a smaller array
+     * @param ts t values to evaluate
+     * @param tOffset index of the first t value to evaluate
+     * @param xs array to write the x coordinates into
+     * @param ys array to write the y coordinates into
+     * @param offset index to write the first point to
+     * @param length number of t values to evaluate
+     */
+    void evaluateBatch(double[] ts, int tOffset, double[] xs, double[] ys, int offset, int length) {
+        double[] c = coefficients;
+        double x0 = c[0], x1 = c[1], x2 = c[2], x3 = c[3], x4 = c[4], x5 = c[5];
+        double y0 = c[6], y1 = c[7], y2 = c[8], y3 = c[9], y4 = c[10], y5 = c[11];
+
+        int end = offset + length, shift = tOffset - offset;
+        for(int i = offset; i < end; i++) {
+            double t = ts[i + shift];
+            xs[i] = ((((x5 * t + x4) * t + x3) * t + x2) * t + x1) * t + x0;
+            ys[i] = ((((y5 * t + y4) * t + y3) * t + y2) * t + y1) * t + y0;
+        }
+
+        for(int i = offset; i < end; i++) {
+            double t = ts[i + shift];
+            if(!(t >= 0 && t <= 1)) {
+                Point2D point = t < 0 ? pose0.getPosition() : pose1.getPosition();
+                xs[i] = point.getX();
+                ys[i] = point.getY();
+            }
+        }
+    }
+
+    /**
+     * Evaluates the nth derivative at a range of t values from the power basis coefficients in a branch-free loop.
+     * Only the 1st and 2nd derivatives are supported, others are 0
+     * @param ts t values to evaluate
+     * @param n degree of the derivative
+     * @param xs array to write the x components into
+     * @param ys array to write the y components into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    @Override
+    public void evaluateDerivativeBatch(double[] ts, int n, double[] xs, double[] ys, int offset, int length) {
+        evaluateDerivativeBatch(ts, offset, n, xs, ys, offset, length);
+    }
+
+    /**
+     * Evaluates the nth derivative at a range of t values like
+     * {@link #evaluateDerivativeBatch(double[], int, double[], double[], int, int)}, reading the t values from their own
+     * offset so a caller can convert a slice of t values into a smaller array
+     * @param ts t values to evaluate
+     * @param tOffset index of the first t value to evaluate
+     * @param n degree of the derivative
+     * @param xs array to write the x components into
+     * @param ys array to write the y components into
+     * @param offset index to write the first derivative to
+     * @param length number of t values to evaluate
+     */
+    void evaluateDerivativeBatch(double[] ts, int tOffset, int n, double[] xs, double[] ys, int offset, int length) {
+        double[] c = coefficients;
+        int end = offset + length, shift = tOffset - offset;
         switch(n) {
-            //derivatives of basis functions: https://www.rose-hulman.edu/~finn/CCLI/Notes/day09.pdf page 9-4
+            case 1: {
+                double x1 = c[1], x2 = 2 * c[2], x3 = 3 * c[3], x4 = 4 * c[4], x5 = 5 * c[5];
+                double y1 = c[7], y2 = 2 * c[8], y3 = 3 * c[9], y4 = 4 * c[10], y5 = 5 * c[11];
+                for(int i = offset; i < end; i++) {
+                    double t = ts[i + shift];
+                    xs[i] = (((x5 * t + x4) * t + x3) * t + x2) * t + x1;
+                    ys[i] = (((y5 * t + y4) * t + y3) * t + y2) * t + y1;
+                }
+                break;
+            }
+            case 2: {
+                double x2 = 2 * c[2], x3 = 6 * c[3], x4 = 12 * c[4], x5 = 20 * c[5];
+                double y2 = 2 * c[8], y3 = 6 * c[9], y4 = 12 * c[10], y5 = 20 * c[11];
+                for(int i = offset; i < end; i++) {
+                    double t = ts[i + shift];
+                    xs[i] = ((x5 * t + x4) * t + x3) * t + x2;
+                    ys[i] = ((y5 * t + y4) * t + y3) * t + y2;
+                }
+                break;
+            }
+            default:
+                for(int i = offset; i < end; i++) {
+                    xs[i] = 0;
+                    ys[i] = 0;
+                }
+        }
+    }
+
+    /**
+     * Evaluates the curvature at a range of t values from the power basis coefficients in a single loop
+     * @param ts t values to evaluate
+     * @param curvatures array to write the curvatures into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    @Override
+    public void evaluateCurvatureBatch(double[] ts, double[] curvatures, int offset, int length) {
+        evaluateCurvatureBatch(ts, offset, curvatures, offset, length);
+    }
+
+    /**
+     * Evaluates the curvature at a range of t values like
+     * {@link #evaluateCurvatureBatch(double[], double[], int, int)}, reading the t values from their own offset so a
+     * caller can convert a slice of t values into a smaller array
+     * @param ts t values to evaluate
+     * @param tOffset index of the first t value to evaluate
+     * @param curvatures array to write the curvatures into
+     * @param offset index to write the first curvature to
+     * @param length number of t values to evaluate
+     */
+    void evaluateCurvatureBatch(double[] ts, int tOffset, double[] curvatures, int offset, int length) {
+        double[] c = coefficients;
+        double dx1 = c[1], dx2 = 2 * c[2], dx3 = 3 * c[3], dx4 = 4 * c[4], dx5 = 5 * c[5];
+        double dy1 = c[7], dy2 = 2 * c[8], dy3 = 3 * c[9], dy4 = 4 * c[10], dy5 = 5 * c[11];
+        double ddx2 = 2 * c[2], ddx3 = 6 * c[3], ddx4 = 12 * c[4], ddx5 = 20 * c[5];
+        double ddy2 = 2 * c[8], ddy3 = 6 * c[9], ddy4 = 12 * c[10], ddy5 = 20 * c[11];
+
+        int end = offset + length, shift = tOffset - offset;
+        for(int i = offset; i < end; i++) {
+            double t = ts[i + shift];
+            double x1 = (((dx5 * t + dx4) * t + dx3) * t + dx2) * t + dx1;
+            double y1 = (((dy5 * t + dy4) * t + dy3) * t + dy2) * t + dy1;
+            double x2 = ((ddx5 * t + ddx4) * t + ddx3) * t + ddx2;
+            double y2 = ((ddy5 * t + ddy4) * t + ddy3) * t + ddy2;
+
+            //https://en.wikipedia.org/wiki/Curvature#In_terms_of_a_general_parametrization
+            double speedSquared = x1*x1 + y1*y1;
+            curvatures[i] = (x1 * y2 - x2 * y1) / (speedSquared * Math.sqrt(speedSquared));
+        }
+    }
+
+    /**
+     * Returns the squared distance from the spline at t to a {@link Point2D}
+     * @param t t value to get distance from on the spline
+     * @param point {@link Point2D} point to get distance from
+     * @return the squared distance from the spline at t to a {@link Point2D}
+     */
+    @Override
+    public double getDistanceAtT(double t, Point2D point) {
+        double x = getPointX(t);
+        double y = getPointY(t);
+        //D2 = (x1(t) - x2)^2 + (y1(t) - y2)^2
+        return (x - point.getX())*(x - point.getX()) +
+                (y - point.getY())*(y - point.getY());
+    }
+
+    /**
+     * Returns the x coordinate of the point at t, clamped to the starting and ending poses like {@link #getPoint(double)}
+     */
+    private double getPointX(double t) {
+        if(t >= 0 && t <= 1) return getX(t, 0);
+        else if (t < 0) return pose0.getPosition().getX();
+        else return pose1.getPosition().getX();
+    }
+
+    /**
+     * Returns the y coordinate of the point at t, clamped to the starting and ending poses like {@link #getPoint(double)}
+     */
+    private double getPointY(double t) {
+        if(t >= 0 && t <= 1) return getY(t, 0);
+        else if (t < 0) return pose0.getPosition().getY();
+        else return pose1.getPosition().getY();
+    }
+
+    /**
+     * Returns the x coordinate of the n-th derivative at t, 0th being the point, without clamping t
+     */
+    private double getX(double t, int n) {
+        return evaluate(0, t, n);
+    }
+
+    /**
+     * Returns the y coordinate of the n-th derivative at t, 0th being the point, without clamping t
+     */
+    private double getY(double t, int n) {
+        return evaluate(6, t, n);
+    }
+
+    /**
+     * Evaluates the n-th derivative of one coordinate's polynomial with Horner's scheme, 0 past the 2nd derivative
+     * @param offset 0 for x, 6 for y
+     */
+    private double evaluate(int offset, double t, int n) {
+        double[] c = coefficients;
+        switch(n) {
+            case 0:
+                return ((((c[offset+5] * t + c[offset+4]) * t + c[offset+3]) * t + c[offset+2]) * t + c[offset+1]) * t + c[offset];
             case 1:
-                double h0 = -30 * t * t * t * t + 60 * t * t * t - 30 * t * t;
-                double h1 = -15 * t * t * t * t + 32 * t * t * t - 18 * t * t + 1;
-                double h2 = -(5 * t * t * t * t) / 2 + 6 * t * t * t - 9 * t * t / 2 + t;
-                double h3 = 5 * t * t * t * t / 2 - 4 * t * t * t + 3 * t * t / 2;
-                double h4 = -15 * t * t * t * t + 28 * t * t * t - 12 * t * t;
-                double h5 = 30 * t * t * t * t - 60 * t * t * t + 30 * t * t;
-
-                return getPointFromCoefficients(h0, h1, h2, h3, h4, h5);
+                return (((5 * c[offset+5] * t + 4 * c[offset+4]) * t + 3 * c[offset+3]) * t + 2 * c[offset+2]) * t + c[offset+1];
             case 2:
-                h0 = -120 * t * t * t + 180 * t * t - 60 * t;
-                h1 = -60 * t * t * t + 96 * t * t - 36 * t;
-                h2 = -10 * t * t * t + 18 * t * t - 9 * t + 1;
-                h3 = t * (10 * t * t - 12 * t + 3);
-                h4 = -60 * t * t * t + 84 * t * t - 24 * t;
-                h5 = 120 * t * t * t - 180 * t * t + 60 * t;
-
-                return getPointFromCoefficients(h0, h1, h2, h3, h4, h5);
+                return ((20 * c[offset+5] * t + 12 * c[offset+4]) * t + 6 * c[offset+3]) * t + 2 * c[offset+2];
             default:
-                return new Point2D(0, 0);
+                return 0;
         }
     }
 
+    /**
+     * Evaluates the point and derivatives up to an order of one coordinate's polynomial in a single Horner pass,
+     * writing the n-th derivative to out[index + 2n]
+     * @param offset 0 for x, 6 for y
+     */
+    private void evaluate(int offset, double t, int order, double[] out, int index) {
+        double[] c = coefficients;
+        double p = c[offset+5], d1 = 0, d2 = 0;
+        for(int i = offset + 4; i >= offset; i--) {
+            d2 = d2 * t + d1;
+            d1 = d1 * t + p;
+            p = p * t + c[i];
+        }
+        out[index] = p;
+        out[index + 2] = d1;
+        if(order >= 2) {
+            //the running second derivative is half of the actual one
+            out[index + 4] = 2 * d2;
+        }
+        for(int n = 3; n <= order; n++) {
+            out[index + 2 * n] = 0;
+        }
+    }
+
+    /**
+     * Converts the poses, velocities, and accelerations to power basis coefficients
+     */
+    private void updateCoefficients() {
+        updateCoefficients(0, pose0.getPosition().getX(), velocity0.getX(), acceleration0.getX(),
+                acceleration1.getX(), velocity1.getX(), pose1.getPosition().getX());
+        updateCoefficients(6, pose0.getPosition().getY(), velocity0.getY(), acceleration0.getY(),
+                acceleration1.getY(), velocity1.getY(), pose1.getPosition().getY());
+    }
+
+    /**
+     * Sums the quintic hermite basis functions into power basis coefficients for a single coordinate
+     * @param offset 0 for x, 6 for y
+     */
+    private void updateCoefficients(int offset, double p0, double v0, double a0, double a1, double v1, double p1) {
+        //basis functions: https://www.rose-hulman.edu/~finn/CCLI/Notes/day09.pdf page 9-4, collected by power of t
+        coefficients[offset] = p0;
+        coefficients[offset+1] = v0;
+        coefficients[offset+2] = a0 / 2;
+        coefficients[offset+3] = -10 * p0 - 6 * v0 - 3 * a0 / 2 + a1 / 2 - 4 * v1 + 10 * p1;
+        coefficients[offset+4] = 15 * p0 + 8 * v0 + 3 * a0 / 2 - a1 + 7 * v1 - 15 * p1;
+        coefficients[offset+5] = -6 * p0 - 3 * v0 - a0 / 2 + a1 / 2 - 3 * v1 + 6 * p1;
+    }
+
     /**
      * Returns a {@link Point2D} based on coefficients from origin functions
      * @param h0 coefficient for starting pose
@@ -165,6 +471,40 @@ public class QuinticHermiteSpline extends Parametric {
                         h3 * acceleration1.getY() + h4 * velocity1.getY() + h5 * pose1.getPosition().getY());
     }
 
+    /**
+     * Returns the axis-aligned bounding box of the spline's equivalent quintic Bézier control points, which contains the whole spline
+     * @return the bounding box as {minX, minY, maxX, maxY}
+     */
+    public double[] getBoundingBox() {
+        //Bézier control points of a quintic hermite spline:
+        //p0, p0 + v0/5, p0 + 2v0/5 + a0/20, p1 - 2v1/5 + a1/20, p1 - v1/5, p1
+        double[] xs = {
+                pose0.getPosition().getX(),
+                pose0.getPosition().getX() + velocity0.getX() / 5,
+                pose0.getPosition().getX() + 2 * velocity0.getX() / 5 + acceleration0.getX() / 20,
+                pose1.getPosition().getX() - 2 * velocity1.getX() / 5 + acceleration1.getX() / 20,
+                pose1.getPosition().getX() - velocity1.getX() / 5,
+                pose1.getPosition().getX()
+        };
+        double[] ys = {
+                pose0.getPosition().getY(),
+                pose0.getPosition().getY() + velocity0.getY() / 5,
+                pose0.getPosition().getY() + 2 * velocity0.getY() / 5 + acceleration0.getY() / 20,
+                pose1.getPosition().getY() - 2 * velocity1.getY() / 5 + acceleration1.getY() / 20,
+                pose1.getPosition().getY() - velocity1.getY() / 5,
+                pose1.getPosition().getY()
+        };
+
+        double[] box = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for(int i = 0; i < xs.length; i++) {
+            box[0] = Math.min(box[0], xs[i]);
+            box[1] = Math.min(box[1], ys[i]);
+            box[2] = Math.max(box[2], xs[i]);
+            box[3] = Math.max(box[3], ys[i]);
+        }
+        return box;
+    }
+
     /**
      * Returns the ending {@link Pose2D}
      * @return the ending {@link Pose2D}
@@ -207,7 +547,7 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public void setPose0(Pose2D pose) {
         this.pose0 = pose;
-        this.length = getGaussianQuadratureLength(17);
+        changed();
     }
 
     /**
@@ -216,7 +556,7 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public void setVelocity0(Vector2D velocity) {
         this.velocity0 = velocity;
-        this.length = getGaussianQuadratureLength(17);
+        changed();
     }
 
     /**
@@ -225,7 +565,7 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public void setAcceleration0(Vector2D acceleration) {
         this.acceleration0 = acceleration;
-        this.length = getGaussianQuadratureLength(17);
+        changed();
     }
 
     /**
@@ -234,7 +574,7 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public void setPose1(Pose2D pose) {
         this.pose1 = pose;
-        this.length = getGaussianQuadratureLength(17);
+        changed();
     }
 
     /**
@@ -243,7 +583,7 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public void setVelocity1(Vector2D velocity) {
         this.velocity1 = velocity;
-        this.length = getGaussianQuadratureLength(17);
+        changed();
     }
 
     /**
@@ -252,7 +592,58 @@ public class QuinticHermiteSpline extends Parametric {
      */
     public void setAcceleration1(Vector2D acceleration) {
         this.acceleration1 = acceleration;
-        this.length = getGaussianQuadratureLength(17);
+        changed();
+    }
+
+    /**
+     * Sets the starting pose, velocity, and acceleration at once, updating the spline once instead of after each
+     * @param pose new starting {@link Pose2D}
+     * @param velocity new starting {@link Vector2D} velocity
+     * @param acceleration new starting {@link Vector2D} acceleration
+     */
+    public void setStart(Pose2D pose, Vector2D velocity, Vector2D acceleration) {
+        this.pose0 = pose;
+        this.velocity0 = velocity;
+        this.acceleration0 = acceleration;
+        changed();
+    }
+
+    /**
+     * Sets the ending pose, velocity, and acceleration at once, updating the spline once instead of after each
+     * @param pose new ending {@link Pose2D}
+     * @param velocity new ending {@link Vector2D} velocity
+     * @param acceleration new ending {@link Vector2D} acceleration
+     */
+    public void setEnd(Pose2D pose, Vector2D velocity, Vector2D acceleration) {
+        this.pose1 = pose;
+        this.velocity1 = velocity;
+        this.acceleration1 = acceleration;
+        changed();
+    }
+
+    /**
+     * Updates the coefficients after the poses, velocities, or accelerations changed, and marks the length and arc
+     * length lookup table as out of date. A {@link QuinticHermiteSplineGroup} holding the spline has to be told with
+     * {@link QuinticHermiteSplineGroup#updateSplineLength()}
+     */
+    private void changed() {
+        updateCoefficients();
+        lengthDirty = true;
+        arcLengthTable = null;
+    }
+
+    /**
+     * Returns the length of the spline, integrating it with 17 point Gaussian quadrature if the spline changed since
+     * it was last integrated
+     * @return the length of the spline
+     */
+    @Override
+    public double getLength() {
+        if(lengthDirty) {
+            length = getGaussianQuadratureLength(17);
+            lengthDirty = false;
+        }
+        return length;
     }
 
     /**
@@ -265,7 +656,9 @@ public class QuinticHermiteSpline extends Parametric {
     @Override
     public QuinticHermiteSpline getNewPath(Pose2D newPos, Vector2D newVel, Vector2D newAcc) {
         //for quintic hermite splines
-        return new QuinticHermiteSpline(newPos, pose1, newVel, velocity1, newAcc, acceleration1);
+        QuinticHermiteSpline spline = new QuinticHermiteSpline(newPos, pose1, newVel, velocity1, newAcc, acceleration1);
+        copyArcLengthTableSettings(spline);
+        return spline;
     }
 
 }
@@ -7,12 +7,23 @@ public class QuinticHermiteSplineGroup extends Parametric {
     //list of splines
     private ArrayList<QuinticHermiteSpline> splines = new ArrayList<>();
 
+    //bounding box tree for closest point queries, rebuilt on first use after the splines change. The lazily built caches
+    //are volatile since a group can be read from several threads, such as a background regeneration, and each thread
+    //must see a built cache in full
+    private boolean useBoundingBoxTree = true;
+    private volatile SplineBoundingBoxTree boundingBoxTree;
+
+    //lengths of the splines before each index, rebuilt on first use after the splines change
+    private volatile double[] cumulativeLengths;
+
+    //whether each spline's range of t is proportional to its length instead of an equal share
+    private boolean arcLengthParameterization = false;
+
     /**
      * Creates a new spline group with an initial {@link QuinticHermiteSpline}
      * @param initialSpline {@link QuinticHermiteSpline} to initialize with
      */
     public QuinticHermiteSplineGroup(QuinticHermiteSpline initialSpline) {
-        length = initialSpline.getLength();
         splines.add(initialSpline);
     }
 
@@ -22,25 +33,22 @@ public class QuinticHermiteSplineGroup extends Parametric {
      */
     public QuinticHermiteSplineGroup(ArrayList<QuinticHermiteSpline> splines) {
         this.splines = splines;
-        for(QuinticHermiteSpline spline : splines) {
-            length += spline.getLength();
-        }
     }
 
     /**
      * Creates a new empty spline group
      */
-    public QuinticHermiteSplineGroup() {
-        length = 0;
-    }
+    public QuinticHermiteSplineGroup() {}
 
     /**
      * Adds a {@link QuinticHermiteSpline} to the list of splines
      * @param spline {@link QuinticHermiteSpline} to add
      */
     public void addSpline(QuinticHermiteSpline spline) {
-        length += spline.getLength();
+        applyArcLengthTableSettings(spline);
         splines.add(spline);
+        boundingBoxTree = null;
+        cumulativeLengths = null;
     }
 
     /**
@@ -49,8 +57,19 @@ public class QuinticHermiteSplineGroup extends Parametric {
      * @param spline {@link QuinticHermiteSpline} to add
      */
     public void addSpline(int index, QuinticHermiteSpline spline) {
-        length += spline.getLength();
+        applyArcLengthTableSettings(spline);
         splines.add(index, spline);
+        boundingBoxTree = null;
+        cumulativeLengths = null;
+    }
+
+    /**
+     * Enables the arc length lookup table of the group on a {@link QuinticHermiteSpline} being added if it has none.
+     * A spline that already has a table enabled keeps its own settings and its built table
+     * @param spline {@link QuinticHermiteSpline} being added
+     */
+    private void applyArcLengthTableSettings(QuinticHermiteSpline spline) {
+        if(!spline.isArcLengthTableEnabled()) copyArcLengthTableSettings(spline);
     }
 
     /**
@@ -68,8 +87,9 @@ public class QuinticHermiteSplineGroup extends Parametric {
      */
     public void removeSpline(QuinticHermiteSpline spline) {
         if(splines.contains(spline)) {
-            length -= spline.getLength();
             splines.remove(spline);
+            boundingBoxTree = null;
+            cumulativeLengths = null;
         }
     }
 
@@ -78,12 +98,13 @@ public class QuinticHermiteSplineGroup extends Parametric {
      * @param index index to remove the {@link QuinticHermiteSpline}
      */
     public void removeSpline(int index) {
-        length -= splines.get(index).getLength();
         splines.remove(index);
+        boundingBoxTree = null;
+        cumulativeLengths = null;
     }
 
     /**
-     * Gets the list of spline
+     * Gets the list of spline. If the list or its splines are edited directly, call {@link #updateSplineLength()} afterwards
      * @return an {@link ArrayList} of {@link QuinticHermiteSpline}s
      */
     public ArrayList<QuinticHermiteSpline> getSplines() {
@@ -98,7 +119,19 @@ public class QuinticHermiteSplineGroup extends Parametric {
     public int getSplineFromT(double t) {
         if(t < 0) return 0;
         if(t >= 1) return splines.size() - 1;
-        return (int) (t * splines.size());
+        if(!usesArcLengthParameterization()) return (int) (t * splines.size());
+
+        //binary search for the first spline that ends past the length at t
+        double[] cumulativeLengths = getCumulativeLengths();
+        int size = splines.size();
+        double length = t * cumulativeLengths[size];
+        int lo = 0, hi = size - 1;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(cumulativeLengths[mid + 1] <= length) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
     }
 
     /**
@@ -108,11 +141,57 @@ public class QuinticHermiteSplineGroup extends Parametric {
      * @return t for the spline given the overall t and the index of the spline
      */
     public double getSplineTFromT(double t, int splineIndex) {
+        if(usesArcLengthParameterization()) {
+            double[] cumulativeLengths = getCumulativeLengths();
+            double splineLength = cumulativeLengths[splineIndex + 1] - cumulativeLengths[splineIndex];
+            if(splineLength <= 0) return 0;
+            return (t * cumulativeLengths[splines.size()] - cumulativeLengths[splineIndex]) / splineLength;
+        }
         if(t < 0) return t * splines.size();
         if(t >= 1) return 1 + (t-1) * splines.size();
         return (t - (double) splineIndex / splines.size()) * splines.size();
     }
 
+    /**
+     * Returns the overall t given the t of a spline and the index of the spline
+     * @param splineIndex index of the spline in array
+     * @param splineT t parameter of the spline
+     * @return the overall t given the t of a spline and the index of the spline
+     */
+    public double getTFromSplineT(int splineIndex, double splineT) {
+        if(usesArcLengthParameterization()) {
+            double[] cumulativeLengths = getCumulativeLengths();
+            double splineLength = cumulativeLengths[splineIndex + 1] - cumulativeLengths[splineIndex];
+            return (cumulativeLengths[splineIndex] + splineT * splineLength) / cumulativeLengths[splines.size()];
+        }
+        return (splineIndex + splineT) / splines.size();
+    }
+
+    /**
+     * Sets whether each {@link QuinticHermiteSpline} covers a range of t proportional to its length instead of an
+     * equal share, so the overall t stays close to the fraction of the length on groups with uneven spline lengths.
+     * Changing it changes the meaning of every t value of the group, so previous t values should not be reused
+     * @param arcLengthParameterization true to give each spline a range of t proportional to its length
+     */
+    public void setArcLengthParameterization(boolean arcLengthParameterization) {
+        this.arcLengthParameterization = arcLengthParameterization;
+    }
+
+    /**
+     * Returns whether each {@link QuinticHermiteSpline} covers a range of t proportional to its length
+     * @return whether each spline covers a range of t proportional to its length
+     */
+    public boolean isArcLengthParameterization() {
+        return arcLengthParameterization;
+    }
+
+    /**
+     * Returns whether the arc length parameterization is enabled and can be used, which needs a nonzero total length
+     */
+    private boolean usesArcLengthParameterization() {
+        return arcLengthParameterization && getCumulativeLengths()[splines.size()] > 0;
+    }
+
     /**
      * Returns the {@link Point2D} at t
      * @param t t to get associated {@link Point2D}
@@ -125,47 +204,160 @@ public class QuinticHermiteSplineGroup extends Parametric {
     }
 
     /**
-     * Returns the {@link Angle} at t
-     * @param t t to get associated {@link Angle}
-     * @return {@link Angle} at t
+     * Returns the nth derivative as a {@link Point2D} at t
+     * @param t t to get associated nth derivative
+     * @param n degree of the derivative
+     * @return the nth derivative as a {@link Point2D} at t
      */
     @Override
-    public Angle getAngle(double t) {
+    public Point2D getDerivative(double t, int n) {
         int index = getSplineFromT(t);
-        return splines.get(index).getAngle(getSplineTFromT(t, index));
+        return splines.get(index).getDerivative(getSplineTFromT(t, index), n);
     }
 
     /**
-     * Returns the {@link Pose2D} at t
-     * @param t t to get associated {@link Pose2D}
-     * @return {@link Pose2D} at t
+     * Writes the {@link Point2D} at t into an existing {@link Point2D}
+     * @param t t to get associated {@link Point2D}
+     * @param out {@link Point2D} to write the coordinates into
+     * @return out
      */
     @Override
-    public Pose2D getPose(double t) {
+    public Point2D getPoint(double t, Point2D out) {
         int index = getSplineFromT(t);
-        return splines.get(index).getPose(getSplineTFromT(t, index));
+        return splines.get(index).getPoint(getSplineTFromT(t, index), out);
     }
 
     /**
-     * Returns the nth derivative as a {@link Point2D} at t
+     * Writes the nth derivative at t into an existing {@link Point2D}
      * @param t t to get associated nth derivative
      * @param n degree of the derivative
-     * @return the nth derivative as a {@link Point2D} at t
+     * @param out {@link Point2D} to write the derivative into
+     * @return out
      */
     @Override
-    public Point2D getDerivative(double t, int n) {
+    public Point2D getDerivative(double t, int n, Point2D out) {
         int index = getSplineFromT(t);
-        return splines.get(index).getDerivative(getSplineTFromT(t, index), n);
+        return splines.get(index).getDerivative(getSplineTFromT(t, index), n, out);
+    }
+
+    /**
+     * Evaluates the point and its derivatives up to an order at t, looking up the spline only once.
+     * Derivatives are with respect to the t of the spline, like {@link #getDerivative(double, int)}
+     * @param t t to evaluate at
+     * @param order highest derivative to evaluate, 0 for only the point
+     * @param out array of at least 2 * (order + 1) to write into
+     * @return out
+     */
+    @Override
+    public double[] evaluate(double t, int order, double[] out) {
+        int index = getSplineFromT(t);
+        return splines.get(index).evaluate(getSplineTFromT(t, index), order, out);
+    }
+
+    /**
+     * Returns the magnitude of the first derivative at t
+     * @param t t to get the magnitude of the first derivative at
+     * @return the magnitude of the first derivative at t
+     */
+    @Override
+    public double getSpeed(double t) {
+        int index = getSplineFromT(t);
+        return splines.get(index).getSpeed(getSplineTFromT(t, index));
+    }
+
+    /**
+     * Evaluates the points at a range of t values, evaluating each run of consecutive t values on the same spline as one batch
+     * @param ts t values to evaluate
+     * @param xs array to write the x coordinates into
+     * @param ys array to write the y coordinates into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    @Override
+    public void evaluateBatch(double[] ts, double[] xs, double[] ys, int offset, int length) {
+        //t values of the splines, splineTs[i - offset] for ts[i]
+        double[] splineTs = new double[length];
+        int end = offset + length;
+        for(int start = offset; start < end; ) {
+            int index = getSplineFromT(ts[start]);
+            int runEnd = toSplineTs(ts, splineTs, index, start, end, offset);
+            splines.get(index).evaluateBatch(splineTs, start - offset, xs, ys, start, runEnd - start);
+            start = runEnd;
+        }
+    }
+
+    /**
+     * Evaluates the nth derivative at a range of t values, evaluating each run of consecutive t values on the same spline as one batch.
+     * Derivatives are with respect to the t of the spline, like {@link #getDerivative(double, int)}
+     * @param ts t values to evaluate
+     * @param n degree of the derivative
+     * @param xs array to write the x components into
+     * @param ys array to write the y components into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    @Override
+    public void evaluateDerivativeBatch(double[] ts, int n, double[] xs, double[] ys, int offset, int length) {
+        //t values of the splines, splineTs[i - offset] for ts[i]
+        double[] splineTs = new double[length];
+        int end = offset + length;
+        for(int start = offset; start < end; ) {
+            int index = getSplineFromT(ts[start]);
+            int runEnd = toSplineTs(ts, splineTs, index, start, end, offset);
+            splines.get(index).evaluateDerivativeBatch(splineTs, start - offset, n, xs, ys, start, runEnd - start);
+            start = runEnd;
+        }
+    }
+
+    /**
+     * Evaluates the curvature at a range of t values, evaluating each run of consecutive t values on the same spline as one batch
+     * @param ts t values to evaluate
+     * @param curvatures array to write the curvatures into
+     * @param offset index of the first t value to evaluate
+     * @param length number of t values to evaluate
+     */
+    @Override
+    public void evaluateCurvatureBatch(double[] ts, double[] curvatures, int offset, int length) {
+        //t values of the splines, splineTs[i - offset] for ts[i]
+        double[] splineTs = new double[length];
+        int end = offset + length;
+        for(int start = offset; start < end; ) {
+            int index = getSplineFromT(ts[start]);
+            int runEnd = toSplineTs(ts, splineTs, index, start, end, offset);
+            splines.get(index).evaluateCurvatureBatch(splineTs, start - offset, curvatures, start, runEnd - start);
+            start = runEnd;
+        }
+    }
+
+    /**
+     * Converts the run of consecutive overall t values starting at start that fall on the same spline to t values of that spline
+     * @param ts overall t values
+     * @param splineTs array to write the t values of the spline into, offset indices before the overall t values
+     * @param splineIndex index of the spline the run falls on
+     * @param start index of the first t value of the run
+     * @param end index to stop the run at
+     * @param offset index of ts that splineTs starts at
+     * @return the index after the last t value of the run
+     */
+    private int toSplineTs(double[] ts, double[] splineTs, int splineIndex, int start, int end, int offset) {
+        int i = start;
+        while(i < end && getSplineFromT(ts[i]) == splineIndex) {
+            splineTs[i - offset] = getSplineTFromT(ts[i], splineIndex);
+            i++;
+        }
+        return i;
     }
 
     /**
-     * Returns the curvature as a {@link Pose2D} at t
-     * @param t t parameter to get curvature of
-     * @return the curvature as a {@link Pose2D} at t
+     * Returns the squared distance from the spline group at t to a {@link Point2D}
+     * @param t t value to get distance from on the spline group
+     * @param point {@link Point2D} point to get distance from
+     * @return the squared distance from the spline group at t to a {@link Point2D}
      */
-    public double getCurvature(double t) {
+    @Override
+    public double getDistanceAtT(double t, Point2D point) {
         int index = getSplineFromT(t);
-        return splines.get(index).getCurvature(getSplineTFromT(t, index));
+        return splines.get(index).getDistanceAtT(getSplineTFromT(t, index), point);
     }
 
     /**
@@ -173,21 +365,65 @@ public class QuinticHermiteSplineGroup extends Parametric {
      * @param point the {@link Point2D} that to get closest point from
      * @param steps the number of steps to start Newton's method from
      * @param iterations the number of iterations to run Newton's method on a single step
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
      * @return the closest associated t value on the spline from a {@link Point2D} using Newton's method on the distance function
      */
     @Override
-    public double findClosestPointOnSpline(Point2D point, int steps, int iterations) {
-        Vector2D cur_min = new Vector2D(Double.POSITIVE_INFINITY, 0);
-        double i = 0;
-        for(QuinticHermiteSpline spline : splines) {
-            double t = spline.findClosestPointOnSpline(point, steps, iterations);
-            if(spline.getPoint(t).distance(point) < cur_min.getX()) {
-                cur_min = new Vector2D(spline.getPoint(t).distance(point), i + t / splines.size());
+    public double findClosestPointOnSpline(Point2D point, int steps, int iterations, double[] buffer) {
+        if(useBoundingBoxTree && splines.size() > 1) {
+            return getBoundingBoxTree().findClosestPointOnSpline(point, steps, iterations, buffer);
+        }
+
+        double min_d = Double.POSITIVE_INFINITY;
+        double min_t = 0;
+        for(int i = 0; i < splines.size(); i++) {
+            QuinticHermiteSpline spline = splines.get(i);
+            double t = spline.findClosestPointOnSpline(point, steps, iterations, buffer);
+            double distance = spline.getDistanceAtT(t, point);
+            if(distance < min_d) {
+                min_d = distance;
+                min_t = getTFromSplineT(i, t);
+            }
+        }
+        return min_t;
+
+    }
+
+    /**
+     * Returns the closest associated t value from a {@link Point2D}, only searching a window around a starting t.
+     * The search continues into the neighboring spline when the closest point lands on the edge of a spline
+     * @param point the {@link Point2D} that to get closest point from
+     * @param startT t value to center the window on, usually the previous closest t
+     * @param window half-width of the window in meters along the spline
+     * @param steps the number of evenly spaced steps in the window to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @param buffer scratch array of at least {@link #DERIVATIVES_LENGTH}
+     * @return the closest associated t value in the window from a {@link Point2D}
+     */
+    @Override
+    public double findClosestPointNear(Point2D point, double startT, double window, int steps, int iterations, double[] buffer) {
+        int index = getSplineFromT(startT);
+        QuinticHermiteSpline spline = splines.get(index);
+        double t = spline.findClosestPointNear(point, getSplineTFromT(startT, index), window, steps, iterations, buffer);
+
+        double min_t = getTFromSplineT(index, t);
+        double min_d = spline.getDistanceAtT(t, point);
+
+        if(t == 0 && index > 0) {
+            QuinticHermiteSpline prev = splines.get(index - 1);
+            double prevT = prev.findClosestPointNear(point, 1, window, steps, iterations, buffer);
+            if(prev.getDistanceAtT(prevT, point) < min_d) {
+                min_t = getTFromSplineT(index - 1, prevT);
+            }
+        } else if(t == 1 && index < splines.size() - 1) {
+            QuinticHermiteSpline next = splines.get(index + 1);
+            double nextT = next.findClosestPointNear(point, 0, window, steps, iterations, buffer);
+            if(next.getDistanceAtT(nextT, point) < min_d) {
+                min_t = getTFromSplineT(index + 1, nextT);
             }
-            i += 1. / splines.size();
         }
-        return cur_min.getY();
 
+        return min_t;
     }
 
     /**
@@ -208,12 +444,40 @@ public class QuinticHermiteSplineGroup extends Parametric {
             length += splines.get(startSpline).getGaussianQuadratureLength(getSplineTFromT(start, startSpline), 1, steps);
             length += splines.get(endSpline).getGaussianQuadratureLength(0, getSplineTFromT(end, endSpline), steps);
         }
-        for (int i = startSpline + 1; i < endSpline; i++) {
-            length += splines.get(i).getLength();
+        //whole splines in between
+        if(endSpline > startSpline + 1) {
+            length += getCumulativeLength(endSpline) - getCumulativeLength(startSpline + 1);
         }
         return length;
     }
 
+    /**
+     * Adds the adaptive Gauss-Kronrod 7/15 length from a start to end t parameter to a {@link QuadratureResult},
+     * integrating each spline in the range separately so no interval spans the joint between two splines.
+     * The tolerance is split evenly between the splines
+     * @param start t parameter to start length calculation
+     * @param end t parameter to end length calculation, not less than start
+     * @param tolerance maximum estimated absolute error of this range in the units of the parametric
+     * @param out {@link QuadratureResult} to add to
+     */
+    @Override
+    protected void addAdaptiveQuadratureLength(double start, double end, double tolerance, QuadratureResult out) {
+        int startSpline = getSplineFromT(start);
+        int endSpline = getSplineFromT(end);
+        if(startSpline == endSpline) {
+            splines.get(startSpline).addAdaptiveQuadratureLength(getSplineTFromT(start, startSpline),
+                    getSplineTFromT(end, endSpline), tolerance, out);
+            return;
+        }
+
+        double splineTolerance = tolerance / (endSpline - startSpline + 1);
+        splines.get(startSpline).addAdaptiveQuadratureLength(getSplineTFromT(start, startSpline), 1, splineTolerance, out);
+        for(int i = startSpline + 1; i < endSpline; i++) {
+            splines.get(i).addAdaptiveQuadratureLength(0, 1, splineTolerance, out);
+        }
+        splines.get(endSpline).addAdaptiveQuadratureLength(0, getSplineTFromT(end, endSpline), splineTolerance, out);
+    }
+
     /**
      * Returns the t parameter associated with a certain length from the beginning
      * @param length length to get the t parameter of
@@ -221,18 +485,87 @@ public class QuinticHermiteSplineGroup extends Parametric {
      */
     @Override
     public double getTFromLength(double length) {
-        double t = 0;
-        double l = 0;
-        for(QuinticHermiteSpline spline : splines) {
-            if(spline.getLength() + l <= length) {
-                l += spline.getLength();
-                t += 1. / splines.size();
-            } else {
-                t += spline.getTFromLength(length - l) / splines.size();
-                break;
+        double[] cumulativeLengths = getCumulativeLengths();
+        int size = splines.size();
+        if(size == 0 || cumulativeLengths[size] <= length) return 1;
+
+        //binary search for the first spline that ends past the length
+        int lo = 0, hi = size - 1;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(cumulativeLengths[mid + 1] <= length) lo = mid + 1;
+            else hi = mid;
+        }
+
+        return getTFromSplineT(lo, splines.get(lo).getTFromLength(length - cumulativeLengths[lo]));
+    }
+
+    /**
+     * Returns the total length of the splines before an index
+     * @param index index of the spline, up to the number of splines for the length of the whole group
+     * @return the total length of the splines before the index
+     */
+    public double getCumulativeLength(int index) {
+        return getCumulativeLengths()[index];
+    }
+
+    /**
+     * Returns the lengths of the splines before each index, building them if the splines changed since they were last built
+     * @return the lengths of the splines before each index, with the length of the whole group last
+     */
+    private double[] getCumulativeLengths() {
+        double[] lengths = cumulativeLengths;
+        if(lengths == null) {
+            lengths = new double[splines.size() + 1];
+            for(int i = 0; i < splines.size(); i++) {
+                lengths[i + 1] = lengths[i] + splines.get(i).getLength();
             }
+            cumulativeLengths = lengths;
+        }
+        return lengths;
+    }
+
+    /**
+     * Returns the total length of the splines, summing them again if the splines changed since they were last summed
+     * @return the total length of the splines
+     */
+    @Override
+    public double getLength() {
+        return getCumulativeLengths()[splines.size()];
+    }
+
+    /**
+     * Enables an arc length lookup table on every {@link QuinticHermiteSpline} in the group, and on splines added later
+     * that do not have one enabled already
+     * @param knots number of knots to sample the cumulative length of each spline at
+     * @param tolerance maximum allowed length error in meters
+     */
+    @Override
+    public void enableArcLengthTable(int knots, double tolerance) {
+        super.enableArcLengthTable(knots, tolerance);
+        for(QuinticHermiteSpline spline : splines) {
+            spline.enableArcLengthTable(knots, tolerance);
         }
-        return t;
+    }
+
+    /**
+     * Disables the arc length lookup table on every {@link QuinticHermiteSpline} in the group
+     */
+    @Override
+    public void disableArcLengthTable() {
+        super.disableArcLengthTable();
+        for(QuinticHermiteSpline spline : splines) {
+            spline.disableArcLengthTable();
+        }
+    }
+
+    /**
+     * Returns null, since the arc length lookup tables are kept by each {@link QuinticHermiteSpline} in the group
+     * @return null
+     */
+    @Override
+    public ArcLengthTable getArcLengthTable() {
+        return null;
     }
 
     /**
@@ -254,31 +587,71 @@ public class QuinticHermiteSplineGroup extends Parametric {
      */
     @Override
     public QuinticHermiteSplineGroup getNewPath(Pose2D newPos, Vector2D newVel, Vector2D newAcc) {
-        int index = getIndexOfSplineFromPoint(newPos.getPosition(), 100);
-        QuinticHermiteSplineGroup group = new QuinticHermiteSplineGroup(new QuinticHermiteSpline(newPos, splines.get(index).getPose1()));
+        return getNewPath(newPos, newVel, newAcc, findClosestPointOnSpline(newPos.getPosition(), 100, 5));
+    }
+
+    /**
+     * Return a new {@link QuinticHermiteSplineGroup} path to this spline group's setpoint from a position, velocity,
+     * and acceleration, starting from the spline of an already found closest point t instead of searching for it again
+     * @param newPos {@link Pose2D} to start from
+     * @param newVel {@link Vector2D} velocity to start from
+     * @param newAcc {@link Vector2D} acceleration to start from
+     * @param closestT t of the closest point on this spline group to newPos
+     * @return a new {@link QuinticHermiteSplineGroup} path to this spline group's setpoint from a position, velocity, and acceleration
+     */
+    @Override
+    public QuinticHermiteSplineGroup getNewPath(Pose2D newPos, Vector2D newVel, Vector2D newAcc, double closestT) {
+        int index = getSplineFromT(closestT);
+        QuinticHermiteSplineGroup group = new QuinticHermiteSplineGroup();
+        copyArcLengthTableSettings(group);
+        group.setArcLengthParameterization(arcLengthParameterization);
+        group.addSpline(new QuinticHermiteSpline(newPos, splines.get(index).getPose1()));
+        //the remaining splines are shared with this group, so they are added as they are instead of through addSpline
+        //to keep their arc length lookup tables and settings
         for(int i = index + 1; i < splines.size(); i++) {
-            group.addSpline(splines.get(i));
+            group.splines.add(splines.get(i));
         }
         return group;
     }
 
     /**
-     * Updates the total spline length when one {@link QuinticHermiteSpline} is edited
+     * Updates the total spline length when one {@link QuinticHermiteSpline} is edited. The lengths are summed again
+     * on first use, so only the edited spline is integrated again and only once however many of its setters were called
      * @param index index of edited {@link QuinticHermiteSpline}
-     * @param prevLength previous length of edited {@link QuinticHermiteSpline}
+     * @param prevLength previous length of edited {@link QuinticHermiteSpline}, no longer needed since the lengths are
+     *                   summed again instead of adjusted
      */
     public void updateSplineLength(int index, double prevLength) {
-        length -= prevLength;
-        length += splines.get(index).getLength();
+        updateSplineLength();
     }
 
     /**
-     * Updates the total spline length
+     * Updates the total spline length and bounding box tree after splines were edited, on their first use
      */
     public void updateSplineLength() {
-        length = 0;
-        for(QuinticHermiteSpline spline : splines) {
-            length += spline.getLength();
+        boundingBoxTree = null;
+        cumulativeLengths = null;
+    }
+
+    /**
+     * Sets whether closest point queries use a {@link SplineBoundingBoxTree} to skip splines that cannot contain the
+     * closest point instead of running Newton's method on every spline
+     * @param useBoundingBoxTree true to use the bounding box tree
+     */
+    public void setUseBoundingBoxTree(boolean useBoundingBoxTree) {
+        this.useBoundingBoxTree = useBoundingBoxTree;
+    }
+
+    /**
+     * Returns the {@link SplineBoundingBoxTree} of the group, building it if the splines changed since it was last built
+     * @return the {@link SplineBoundingBoxTree} of the group
+     */
+    public SplineBoundingBoxTree getBoundingBoxTree() {
+        SplineBoundingBoxTree tree = boundingBoxTree;
+        if(tree == null) {
+            tree = new SplineBoundingBoxTree(this);
+            boundingBoxTree = tree;
         }
+        return tree;
     }
 }
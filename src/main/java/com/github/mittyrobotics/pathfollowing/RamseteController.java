@@ -3,13 +3,83 @@ package com.github.mittyrobotics.pathfollowing;
 public class RamseteController {
 
     /**
-     * Variables for ramsete calculations (for debugging)
+     * Variables for ramsete calculations (for debugging), only written by the static
+     * {@link #ramsete(Pose2D, Pose2D, double, double, double, double, double)}
      */
     public static double ex, ey, et, k, rvel, rAngVel, vel, angVel;
     public static Angle t, td;
 
     /**
-     * Returns a {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity, desired angular velocity, tuning constants
+     * Tuning constants and width of the drivetrain in meters
+     */
+    private final double b, Z, trackwidth;
+
+    /**
+     * Create a new ramsete controller. Controllers hold no state between calls, so they can be shared between threads
+     * @param b convergence aggressiveness tuning parameter (b>0, the larger it is the more aggressive it converges to the desired pose)
+     * @param Z dampening tuning parameter (0<Z<1, the larger it is the more dampened any changes are)
+     * @param trackwidth width of the drivetrain in meters
+     */
+    public RamseteController(double b, double Z, double trackwidth) {
+        this.b = b;
+        this.Z = Z;
+        this.trackwidth = trackwidth;
+    }
+
+    /**
+     * Updates an existing {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity and desired angular velocity
+     * @param curPose current {@link Pose2D}
+     * @param desiredPose desired {@link Pose2D}
+     * @param desiredVelocity desired linear velocity in meters/second
+     * @param desiredAngularVelocity desired angular velocity in meters/second
+     * @param telemetry {@link RamseteTelemetry} to write the intermediate values into, or null
+     * @param out {@link DifferentialDriveState} to update
+     * @return out
+     */
+    public DifferentialDriveState calculate(Pose2D curPose, Pose2D desiredPose, double desiredVelocity, double desiredAngularVelocity,
+                                            RamseteTelemetry telemetry, DifferentialDriveState out) {
+        return ramsete(curPose, desiredPose, desiredVelocity, desiredAngularVelocity, b, Z, trackwidth, telemetry, out);
+    }
+
+    /**
+     * Returns a {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity and desired angular velocity
+     * @param curPose current {@link Pose2D}
+     * @param desiredPose desired {@link Pose2D}
+     * @param desiredVelocity desired linear velocity in meters/second
+     * @param desiredAngularVelocity desired angular velocity in meters/second
+     * @return a {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity and desired angular velocity
+     */
+    public DifferentialDriveState calculate(Pose2D curPose, Pose2D desiredPose, double desiredVelocity, double desiredAngularVelocity) {
+        return calculate(curPose, desiredPose, desiredVelocity, desiredAngularVelocity, null, new DifferentialDriveState());
+    }
+
+    /**
+     * Returns the convergence aggressiveness tuning parameter
+     * @return the convergence aggressiveness tuning parameter
+     */
+    public double getB() {
+        return b;
+    }
+
+    /**
+     * Returns the dampening tuning parameter
+     * @return the dampening tuning parameter
+     */
+    public double getZ() {
+        return Z;
+    }
+
+    /**
+     * Returns the width of the drivetrain in meters
+     * @return the width of the drivetrain in meters
+     */
+    public double getTrackwidth() {
+        return trackwidth;
+    }
+
+    /**
+     * Returns a {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity, desired angular velocity, tuning constants.
+     * Writes the intermediate values into the static debugging variables, so it should not be called from multiple threads
      * @param curPose current {@link Pose2D}
      * @param desiredPose desired {@link Pose2D}
      * @param desiredVelocity desired linear velocity in meters/second
@@ -20,34 +90,75 @@ public class RamseteController {
      * @return a {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity, desired angular velocity, tuning constants
      */
     public static DifferentialDriveState ramsete(Pose2D curPose, Pose2D desiredPose, double desiredVelocity, double desiredAngularVelocity, double b, double Z, double trackwidth) {
+        RamseteTelemetry telemetry = new RamseteTelemetry();
+        DifferentialDriveState dds = ramsete(curPose, desiredPose, desiredVelocity, desiredAngularVelocity, b, Z, trackwidth, telemetry, new DifferentialDriveState());
+
+        ex = telemetry.ex;
+        ey = telemetry.ey;
+        et = telemetry.et;
+        k = telemetry.k;
+        rvel = telemetry.rvel;
+        rAngVel = telemetry.rAngVel;
+        vel = telemetry.vel;
+        angVel = telemetry.angVel;
+        t = curPose.getAngle();
+        td = desiredPose.getAngle();
+
+        return dds;
+    }
+
+    /**
+     * Updates an existing {@link DifferentialDriveState} based on a current {@link Pose2D}, desired {@link Pose2D}, desired linear velocity, desired angular velocity, tuning constants.
+     * Only writes into the caller's objects, so it can be called from multiple threads
+     * @param curPose current {@link Pose2D}
+     * @param desiredPose desired {@link Pose2D}
+     * @param desiredVelocity desired linear velocity in meters/second
+     * @param desiredAngularVelocity desired angular velocity in meters/second
+     * @param b convergence aggressiveness tuning parameter (b>0, the larger it is the more aggressive it converges to the desired pose)
+     * @param Z dampening tuning parameter (0<Z<1, the larger it is the more dampened any changes are)
+     * @param trackwidth width of the drivetrain in meters
+     * @param telemetry {@link RamseteTelemetry} to write the intermediate values into, or null
+     * @param out {@link DifferentialDriveState} to update
+     * @return out
+     */
+    public static DifferentialDriveState ramsete(Pose2D curPose, Pose2D desiredPose, double desiredVelocity, double desiredAngularVelocity, double b, double Z, double trackwidth,
+                                                 RamseteTelemetry telemetry, DifferentialDriveState out) {
         //https://file.tavsys.net/control/controls-engineering-in-frc.pdf (literally copied from this)
 
         //b > 0, 0 < Z < 1, larger b -> faster convergence, larger Z -> more dampening
 
-        vel = desiredVelocity;
-        angVel = desiredAngularVelocity;
-
-        k = 2*Z*Math.sqrt(desiredAngularVelocity*desiredAngularVelocity + b * desiredVelocity * desiredVelocity);
+        double k = 2*Z*Math.sqrt(desiredAngularVelocity*desiredAngularVelocity + b * desiredVelocity * desiredVelocity);
 
-        t = curPose.getAngle();
-        td = desiredPose.getAngle();
+        Angle t = curPose.getAngle();
+        Angle td = desiredPose.getAngle();
         double x = curPose.getPosition().getX();
         double xd = desiredPose.getPosition().getX();
         double y = curPose.getPosition().getY();
         double yd = desiredPose.getPosition().getY();
 
-        ex = t.cos() * (xd - x) + t.sin() * (yd - y);
-        ey = t.sin() * (x - xd) + t.cos() * (yd - y);
-        et = td.getAngleBetween(t);
+        double ex = t.cos() * (xd - x) + t.sin() * (yd - y);
+        double ey = t.sin() * (x - xd) + t.cos() * (yd - y);
+        double et = td.getAngleBetween(t);
 
         //get linear and angular velocities as calculated by ramsete
-        rvel = desiredVelocity * Math.cos(et) + k * ex;
-        rAngVel = desiredAngularVelocity + k * et + b * desiredVelocity * sinc(et) * ey;
+        double rvel = desiredVelocity * Math.cos(et) + k * ex;
+        double rAngVel = desiredAngularVelocity + k * et + b * desiredVelocity * sinc(et) * ey;
 
-        DifferentialDriveState dds = new DifferentialDriveState();
+        if(telemetry != null) {
+            telemetry.ex = ex;
+            telemetry.ey = ey;
+            telemetry.et = et;
+            telemetry.k = k;
+            telemetry.rvel = rvel;
+            telemetry.rAngVel = rAngVel;
+            telemetry.vel = desiredVelocity;
+            telemetry.angVel = desiredAngularVelocity;
+            telemetry.t = t.getRadians();
+            telemetry.td = td.getRadians();
+        }
 
-        dds.updateFromLinearAndAngularVelocity(rvel, rAngVel, trackwidth);
-        return dds;
+        out.updateFromLinearAndAngularVelocity(rvel, rAngVel, trackwidth);
+        return out;
     }
 
     //sinc function (sin(x)/x)
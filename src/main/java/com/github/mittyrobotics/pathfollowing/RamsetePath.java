@@ -4,7 +4,12 @@ public class RamsetePath extends Path {
     /**
      * Desired pose
      */
-    protected Pose2D desiredPose;
+    protected Pose2D desiredPose = new Pose2D();
+
+    /**
+     * Intermediate ramsete values of the last update (for debugging)
+     */
+    protected final RamseteTelemetry telemetry = new RamseteTelemetry();
 
     /**
      * Create a new ramsete path with motion profile
@@ -54,69 +59,73 @@ public class RamsetePath extends Path {
      * @return {@link DifferentialDriveState} based on path and current robot pose
      */
     public DifferentialDriveState update(Pose2D robotPose, double dt, double adjust_threshold, int newtonsSteps, double b, double Z, double trackwidth) {
-        //get t associated with closest point on spline
-        closestPointT = parametric.findClosestPointOnSpline(robotPose.getPosition(), newtonsSteps, 5);
-
-        //get distance traveled
-        distanceTraveled = parametric.getGaussianQuadratureLength(closestPointT, 17);
-
-        //get desired pose (closest point on spline)
-        desiredPose = parametric.getPose(closestPointT);
-
-        //limit velocity by max velocity and max acceleration
-        //v = a * t
-        velocity = Math.min(prevVelocity + maxAcceleration * dt, maxVelocity);
-
-        //angular velocity preview distance based on how much distance it takes to completely slow down (worst case)
-        double previewDistance = distanceToSlowdown(prevVelocity, 0, maxDeceleration);
-        //get preview t value associated with that distance
-        double previewT = parametric.getTFromLength(distanceTraveled + previewDistance);
-        //find the maximum possible velocity at that t value
-        double maxVelocityAtPreview = maxVelocityFromT(previewT);
-
-        //add previewed max velocity and preview distance to array
-        previewVelocities.add(new Vector2D(maxVelocityAtPreview, distanceTraveled + previewDistance));
-        //remove array values with distance less than traveled distance
-        clearOldPreviewed();
-
-        //update max possible current velocity from previews
-        velocity = Math.min(getMaxVelocityFromPreviews(), velocity);
-
-        //limit current velocity based on max angular velocity
-        if(Double.isFinite(getRadius(closestPointT))) {
-            //get max velocity given max angular velocity and curvature
-            double maxCurvatureVelocity = maxVelocityFromRadius(getRadius(closestPointT));
+        return update(robotPose, dt, adjust_threshold, newtonsSteps, b, Z, trackwidth, new DifferentialDriveState());
+    }
 
-            velocity = Math.min(velocity, maxCurvatureVelocity);
-        }
+    /**
+     * Updates an existing {@link DifferentialDriveState} to travel on the ramsete path based on current robot pose
+     * @param robotPose current robot {@link Pose2D}
+     * @param dt distance passed since last update
+     * @param adjust_threshold threshold for adaptively regenerating the quintic hermite spline in meters
+     * @param newtonsSteps number of steps to run Newton's method for finding closest point on spline
+     * @param controller {@link RamseteController} with the tuning constants and width of drivetrain
+     * @param out {@link DifferentialDriveState} to update
+     * @return out
+     */
+    public DifferentialDriveState update(Pose2D robotPose, double dt, double adjust_threshold, int newtonsSteps, RamseteController controller, DifferentialDriveState out) {
+        return update(robotPose, dt, adjust_threshold, newtonsSteps, controller.getB(), controller.getZ(), controller.getTrackwidth(), out);
+    }
 
-        //distance to end
-        distanceToEnd = parametric.getLength() - distanceTraveled;
+    /**
+     * Updates an existing {@link DifferentialDriveState} to travel on the ramsete path based on current robot pose
+     * @param robotPose current robot {@link Pose2D}
+     * @param dt distance passed since last update
+     * @param b convergence aggressiveness tuning parameter (b>0, the larger it is the more aggressive it converges to the desired pose)
+     * @param Z dampening tuning parameter (0<Z<1, the larger it is the more dampened any changes are)
+     * @param adjust_threshold threshold for adaptively regenerating the quintic hermite spline in meters
+     * @param newtonsSteps number of steps to run Newton's method for finding closest point on spline
+     * @param trackwidth width of drivetrain in meters
+     * @param out {@link DifferentialDriveState} to update
+     * @return out
+     */
+    public DifferentialDriveState update(Pose2D robotPose, double dt, double adjust_threshold, int newtonsSteps, double b, double Z, double trackwidth, DifferentialDriveState out) {
+        //swap in a finished background regeneration before anything reads the parametric
+        boolean regenerated = applyPendingRegeneration();
+        beginMetrics();
 
-        //max possible current velocity given max deceleration
-        maxVelocityToEnd = maxVelocityFromDistance(distanceToEnd, endVelocity, maxDeceleration);
-        velocity = Math.min(velocity, maxVelocityToEnd);
+        //get t associated with closest point on spline
+        updateClosestPoint(robotPose, dt, newtonsSteps);
+        endStage(PathMetrics.CLOSEST_POINT);
 
-        //limit deceleration to max deceleration
-        velocity = Math.max(prevVelocity - maxDeceleration * dt, velocity);
+        //get distance traveled
+        updateDistanceTraveled();
+        endStage(PathMetrics.DISTANCE_TRAVELED);
 
-        prevVelocity = velocity;
+        //get desired pose (closest point on spline)
+        parametric.getPose(closestPointT, desiredPose, derivatives);
+        endStage(PathMetrics.TARGET);
 
-        //adaptively regenerate path if distance from spline is greater than the adjust threshold
-        if(parametric.getPoint(closestPointT).distance(robotPose.getPosition()) > adjust_threshold) {
-            //current velocity
-            Vector2D curVel = new Vector2D(velocity * robotPose.getAngle().cos(), velocity * robotPose.getAngle().sin());
-            //current acceleration
-            double acc = (velocity - prevVelocity) / dt;
-            Vector2D curAcc = new Vector2D(acc * robotPose.getAngle().cos(), acc * robotPose.getAngle().sin());
+        //plan velocity, limited by the radius of the path at the closest point
+        updateVelocity(dt, getRadius(closestPointT));
+        endStage(PathMetrics.VELOCITY);
 
-            //generate new path
-            parametric = parametric.getNewPath(robotPose, curVel, curAcc);
-            distanceToEnd = parametric.getLength();
-        }
+        //regenerate the parametric if the robot drifted past the adjust threshold
+        regenerated |= updateRegeneration(robotPose, dt, adjust_threshold);
+        endStage(PathMetrics.REGENERATION);
 
         //generate a differential drive state with ramsete
-        return RamseteController.ramsete(robotPose, desiredPose, velocity, velocity * getCurvature(closestPointT), b, Z, trackwidth);
+        RamseteController.ramsete(robotPose, desiredPose, velocity, velocity * getCurvature(closestPointT), b, Z, trackwidth, telemetry, out);
+        endStage(PathMetrics.CONTROLLER);
 
+        endMetrics(regenerated);
+        return out;
+    }
+
+    /**
+     * Returns the intermediate ramsete values of the last update
+     * @return the {@link RamseteTelemetry} of the last update
+     */
+    public RamseteTelemetry getTelemetry() {
+        return telemetry;
     }
 }
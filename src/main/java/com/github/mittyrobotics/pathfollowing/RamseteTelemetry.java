@@ -0,0 +1,43 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class RamseteTelemetry {
+    /**
+     * Error in the robot frame: forward and left in meters, heading in radians
+     */
+    public double ex, ey, et;
+
+    /**
+     * Gain used for the forward and heading errors
+     */
+    public double k;
+
+    /**
+     * Linear and angular velocities calculated by ramsete
+     */
+    public double rvel, rAngVel;
+
+    /**
+     * Desired linear and angular velocities
+     */
+    public double vel, angVel;
+
+    /**
+     * Current and desired headings in radians
+     */
+    public double t, td;
+
+    /**
+     * Create new telemetry with all 0 values
+     */
+    public RamseteTelemetry() {}
+
+    /**
+     * Returns string representation of the telemetry in meters and radians
+     * @return string representation of the telemetry in meters and radians
+     */
+    public String toStringMetric() {
+        return "error = (" + ex + ", " + ey + ", " + et + "), k = " + k + ", ramsete velocity = " + rvel +
+                ", ramsete angular velocity = " + rAngVel + ", velocity = " + vel + ", angular velocity = " + angVel +
+                ", heading = " + t + ", desired heading = " + td;
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class SplineBoundingBoxTree {
+    /**
+     * Spline group the tree was built from
+     */
+    private final QuinticHermiteSplineGroup group;
+
+    /**
+     * Flat node arrays: bounds as {minX, minY, maxX, maxY} per node, children of internal nodes,
+     * and the spline index of leaf nodes (-1 for internal nodes). Node 0 is the root
+     */
+    private final double[] bounds;
+    private final int[] left, right, leaf;
+    private final int depth;
+    private int nodes;
+
+    /**
+     * Builds an axis-aligned bounding box tree over the splines of a group by recursively splitting at the median
+     * @param group {@link QuinticHermiteSplineGroup} to build the tree for
+     */
+    public SplineBoundingBoxTree(QuinticHermiteSplineGroup group) {
+        this.group = group;
+
+        int count = group.getSplines().size();
+        int capacity = Math.max(1, 2 * count - 1);
+        bounds = new double[4 * capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        leaf = new int[capacity];
+
+        double[][] boxes = new double[count][];
+        int[] indices = new int[count];
+        for(int i = 0; i < count; i++) {
+            boxes[i] = group.getSpline(i).getBoundingBox();
+            indices[i] = i;
+        }
+
+        depth = count == 0 ? 0 : build(boxes, indices, 0, count);
+    }
+
+    /**
+     * Recursively builds the node for splines indices[start, end)
+     * @return the depth of the subtree
+     */
+    private int build(double[][] boxes, int[] indices, int start, int end) {
+        int node = nodes++;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for(int i = start; i < end; i++) {
+            double[] box = boxes[indices[i]];
+            minX = Math.min(minX, box[0]);
+            minY = Math.min(minY, box[1]);
+            maxX = Math.max(maxX, box[2]);
+            maxY = Math.max(maxY, box[3]);
+        }
+        bounds[4 * node] = minX;
+        bounds[4 * node + 1] = minY;
+        bounds[4 * node + 2] = maxX;
+        bounds[4 * node + 3] = maxY;
+
+        if(end - start == 1) {
+            leaf[node] = indices[start];
+            return 1;
+        }
+        leaf[node] = -1;
+
+        //split along the longer axis at the median box center
+        int axis = (maxX - minX >= maxY - minY) ? 0 : 1;
+        sortByCenter(boxes, indices, start, end, axis);
+        int mid = (start + end) >>> 1;
+
+        left[node] = nodes;
+        int leftDepth = build(boxes, indices, start, mid);
+        right[node] = nodes;
+        int rightDepth = build(boxes, indices, mid, end);
+        return 1 + Math.max(leftDepth, rightDepth);
+    }
+
+    /**
+     * Insertion sorts indices[start, end) by the center of their boxes along an axis
+     */
+    private static void sortByCenter(double[][] boxes, int[] indices, int start, int end, int axis) {
+        for(int i = start + 1; i < end; i++) {
+            int index = indices[i];
+            double center = boxes[index][axis] + boxes[index][axis + 2];
+            int j = i - 1;
+            while(j >= start && boxes[indices[j]][axis] + boxes[indices[j]][axis + 2] > center) {
+                indices[j + 1] = indices[j];
+                j--;
+            }
+            indices[j + 1] = index;
+        }
+    }
+
+    /**
+     * Returns the squared distance from a {@link Point2D} to the bounding box of a node, 0 if the point is inside
+     */
+    private double getSquaredBoxDistance(int node, Point2D point) {
+        double dx = Math.max(0, Math.max(bounds[4 * node] - point.getX(), point.getX() - bounds[4 * node + 2]));
+        double dy = Math.max(0, Math.max(bounds[4 * node + 1] - point.getY(), point.getY() - bounds[4 * node + 3]));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Returns the closest associated t value on the spline group from a {@link Point2D}, only running Newton's method
+     * on splines whose bounding boxes are closer than the closest point found so far
+     * @param point the {@link Point2D} that to get closest point from
+     * @param steps the number of steps to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @return the closest associated t value on the spline group from a {@link Point2D}
+     */
+    public double findClosestPointOnSpline(Point2D point, int steps, int iterations) {
+        return findClosestPointOnSpline(point, steps, iterations, new double[Parametric.DERIVATIVES_LENGTH]);
+    }
+
+    /**
+     * Returns the closest associated t value on the spline group from a {@link Point2D}, only running Newton's method
+     * on splines whose bounding boxes are closer than the closest point found so far
+     * @param point the {@link Point2D} that to get closest point from
+     * @param steps the number of steps to start Newton's method from
+     * @param iterations the number of iterations to run Newton's method on a single step
+     * @param buffer scratch array of at least {@link Parametric#DERIVATIVES_LENGTH}
+     * @return the closest associated t value on the spline group from a {@link Point2D}
+     */
+    public double findClosestPointOnSpline(Point2D point, int steps, int iterations, double[] buffer) {
+        if(nodes == 0) return 0;
+
+        double t = search(0, point, steps, iterations, buffer, Double.POSITIVE_INFINITY);
+        return Double.isNaN(t) ? 0 : t;
+    }
+
+    /**
+     * Recursively searches the subtree of a node depth-first, nearest child first, pruning boxes farther than the best distance found
+     * @return the t value of the closest point in the subtree with its squared distance written to buffer[0],
+     * or NaN if nothing in the subtree is closer than min_d
+     */
+    private double search(int node, Point2D point, int steps, int iterations, double[] buffer, double min_d) {
+        if(getSquaredBoxDistance(node, point) >= min_d) return Double.NaN;
+
+        if(leaf[node] >= 0) {
+            QuinticHermiteSpline spline = group.getSpline(leaf[node]);
+            double t = spline.findClosestPointOnSpline(point, steps, iterations, buffer);
+            double d = spline.getDistanceAtT(t, point);
+            if(d >= min_d) return Double.NaN;
+            buffer[0] = d;
+            return group.getTFromSplineT(leaf[node], t);
+        }
+
+        //visit the nearer child first so the farther one is more likely to be pruned
+        int near = left[node], far = right[node];
+        if(getSquaredBoxDistance(far, point) < getSquaredBoxDistance(near, point)) {
+            near = right[node];
+            far = left[node];
+        }
+
+        double min_t = search(near, point, steps, iterations, buffer, min_d);
+        if(!Double.isNaN(min_t)) min_d = buffer[0];
+
+        double farT = search(far, point, steps, iterations, buffer, min_d);
+        if(!Double.isNaN(farT)) return farT;
+
+        //the far subtree may have overwritten the buffer while searching
+        buffer[0] = min_d;
+        return min_t;
+    }
+
+    /**
+     * Returns the depth of the tree
+     * @return the depth of the tree
+     */
+    public int getDepth() {
+        return depth;
+    }
+}
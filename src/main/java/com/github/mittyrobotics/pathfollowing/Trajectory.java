@@ -0,0 +1,361 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class Trajectory {
+    /**
+     * Parametric the trajectory was generated from
+     */
+    private final Parametric parametric;
+
+    /**
+     * Distance in meters between consecutive states
+     */
+    private final double spacing;
+
+    /**
+     * States at distance i * spacing, stored as one array per column
+     */
+    private final double[] ts, xs, ys, headings, curvatures, velocities, angularVelocities, accelerations, times;
+
+    /**
+     * Index of the last state at or before time k * timeStep, for looking up states by time
+     */
+    private int[] timeIndices;
+    private double timeStep;
+
+    /**
+     * Creates a new trajectory from columns of states evenly spaced by distance, usually from a {@link TrajectoryGenerator}
+     * @param parametric parametric the trajectory was generated from
+     * @param spacing distance in meters between consecutive states
+     * @param ts t parameter of each state
+     * @param xs x coordinate of each state in meters
+     * @param ys y coordinate of each state in meters
+     * @param headings heading of each state in radians
+     * @param curvatures curvature of each state
+     * @param velocities velocity of each state in meters/second
+     * @param angularVelocities angular velocity of each state in radians/second
+     * @param accelerations acceleration from each state to the next in meters/second^2
+     * @param times time of each state since the start in seconds
+     */
+    public Trajectory(Parametric parametric, double spacing, double[] ts, double[] xs, double[] ys, double[] headings,
+                      double[] curvatures, double[] velocities, double[] angularVelocities, double[] accelerations, double[] times) {
+        this.parametric = parametric;
+        this.spacing = spacing;
+        this.ts = ts;
+        this.xs = xs;
+        this.ys = ys;
+        this.headings = headings;
+        this.curvatures = curvatures;
+        this.velocities = velocities;
+        this.angularVelocities = angularVelocities;
+        this.accelerations = accelerations;
+        this.times = times;
+
+        buildTimeIndices();
+    }
+
+    /**
+     * Creates a trajectory without columns, for subclasses that store the states elsewhere and override {@link #size()},
+     * the state getters and the time index getters
+     * @param parametric parametric the trajectory was generated from
+     * @param spacing distance in meters between consecutive states
+     */
+    protected Trajectory(Parametric parametric, double spacing) {
+        this.parametric = parametric;
+        this.spacing = spacing;
+        this.ts = null;
+        this.xs = null;
+        this.ys = null;
+        this.headings = null;
+        this.curvatures = null;
+        this.velocities = null;
+        this.angularVelocities = null;
+        this.accelerations = null;
+        this.times = null;
+    }
+
+    /**
+     * Builds the table of state indices at evenly spaced times, so states can be looked up by time without searching
+     */
+    private void buildTimeIndices() {
+        int last = size() - 1;
+        double totalTime = getTime(last);
+        if(last < 1 || !(totalTime > 0) || Double.isInfinite(totalTime)) return;
+
+        timeIndices = new int[size()];
+        timeStep = totalTime / (timeIndices.length - 1);
+        int index = 0;
+        for(int k = 0; k < timeIndices.length; k++) {
+            while(index < last - 1 && getTime(index + 1) <= k * timeStep) index++;
+            timeIndices[k] = index;
+        }
+    }
+
+    /**
+     * Writes the state at a distance along the parametric into an existing {@link TrajectoryState}, interpolating
+     * between the two nearest states with constant acceleration
+     * @param distance distance along the parametric in meters, clamped to the trajectory
+     * @param out {@link TrajectoryState} to write into
+     * @return out
+     */
+    public TrajectoryState sampleByDistance(double distance, TrajectoryState out) {
+        int last = size() - 1;
+        if(!(distance > 0) || spacing <= 0) return getState(0, out);
+        if(distance >= getDistance(last)) return getState(last, out);
+
+        int index = Math.min((int) (distance / spacing), last - 1);
+        double ds = Math.max(0, distance - getDistance(index));
+
+        //v^2 = v0^2 + 2ad
+        double v0 = getVelocity(index);
+        double velocity = Math.sqrt(Math.max(0, v0 * v0 + 2 * getAcceleration(index) * ds));
+        double time = getTime(index) + (v0 + velocity > 0 ? 2 * ds / (v0 + velocity) : 0);
+
+        return interpolate(index, ds, velocity, time, out);
+    }
+
+    /**
+     * Returns the state at a distance along the parametric
+     * @param distance distance along the parametric in meters, clamped to the trajectory
+     * @return a new {@link TrajectoryState} at the distance
+     */
+    public TrajectoryState sampleByDistance(double distance) {
+        return sampleByDistance(distance, new TrajectoryState());
+    }
+
+    /**
+     * Writes the state at a time since the start into an existing {@link TrajectoryState}, interpolating
+     * between the two nearest states with constant acceleration
+     * @param time time since the start in seconds, clamped to the trajectory
+     * @param out {@link TrajectoryState} to write into
+     * @return out
+     */
+    public TrajectoryState sampleByTime(double time, TrajectoryState out) {
+        int last = size() - 1;
+        if(!(time > 0)) return getState(0, out);
+        int timeIndexCount = getTimeIndexCount();
+        if(time >= getTime(last) || timeIndexCount == 0) return getState(last, out);
+
+        int index = getTimeIndex(Math.min((int) (time / getTimeStep()), timeIndexCount - 1));
+        while(index < last - 1 && getTime(index + 1) <= time) index++;
+
+        //d = v0 * t + a * t^2 / 2, v = v0 + a * t
+        double dt = time - getTime(index);
+        double v0 = getVelocity(index);
+        double acceleration = getAcceleration(index);
+        double ds = Math.min(spacing, Math.max(0, v0 * dt + acceleration * dt * dt / 2));
+        double velocity = Math.max(0, v0 + acceleration * dt);
+
+        return interpolate(index, ds, velocity, time, out);
+    }
+
+    /**
+     * Returns the state at a time since the start
+     * @param time time since the start in seconds, clamped to the trajectory
+     * @return a new {@link TrajectoryState} at the time
+     */
+    public TrajectoryState sampleByTime(double time) {
+        return sampleByTime(time, new TrajectoryState());
+    }
+
+    /**
+     * Writes the state ds meters past the state at index, with a velocity and time already found from the acceleration
+     */
+    private TrajectoryState interpolate(int index, double ds, double velocity, double time, TrajectoryState out) {
+        double fraction = spacing > 0 ? Math.min(1, ds / spacing) : 0;
+
+        out.distance = getDistance(index) + ds;
+        out.t = lerp(getT(index), getT(index + 1), fraction);
+        out.x = lerp(getX(index), getX(index + 1), fraction);
+        out.y = lerp(getY(index), getY(index + 1), fraction);
+        //interpolate the heading the short way around
+        out.heading = getHeading(index) + fraction * Math.IEEEremainder(getHeading(index + 1) - getHeading(index), 2 * Math.PI);
+        out.curvature = lerp(getCurvature(index), getCurvature(index + 1), fraction);
+        out.velocity = velocity;
+        out.angularVelocity = velocity * out.curvature;
+        out.acceleration = getAcceleration(index);
+        out.time = time;
+        return out;
+    }
+
+    /**
+     * Linearly interpolates between two values
+     */
+    private static double lerp(double a, double b, double fraction) {
+        return a + (b - a) * fraction;
+    }
+
+    /**
+     * Writes the state at an index into an existing {@link TrajectoryState}
+     * @param index index of the state
+     * @param out {@link TrajectoryState} to write into
+     * @return out
+     */
+    public TrajectoryState getState(int index, TrajectoryState out) {
+        out.distance = getDistance(index);
+        out.t = getT(index);
+        out.x = getX(index);
+        out.y = getY(index);
+        out.heading = getHeading(index);
+        out.curvature = getCurvature(index);
+        out.velocity = getVelocity(index);
+        out.angularVelocity = getAngularVelocity(index);
+        out.acceleration = getAcceleration(index);
+        out.time = getTime(index);
+        return out;
+    }
+
+    /**
+     * Returns the number of entries in the table of state indices at evenly spaced times
+     * @return the number of entries, or 0 if states are not looked up by time
+     */
+    protected int getTimeIndexCount() {
+        return timeIndices == null ? 0 : timeIndices.length;
+    }
+
+    /**
+     * Returns the index of the last state at or before time k * {@link #getTimeStep()}
+     * @param k index of the entry in the table
+     * @return the index of the state
+     */
+    protected int getTimeIndex(int k) {
+        return timeIndices[k];
+    }
+
+    /**
+     * Returns the time between entries in the table of state indices at evenly spaced times
+     * @return the time between entries in seconds
+     */
+    protected double getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * Returns the parametric the trajectory was generated from
+     * @return the parametric the trajectory was generated from
+     */
+    public Parametric getParametric() {
+        return parametric;
+    }
+
+    /**
+     * Returns the number of states
+     * @return the number of states
+     */
+    public int size() {
+        return ts.length;
+    }
+
+    /**
+     * Returns the distance in meters between consecutive states
+     * @return the distance in meters between consecutive states
+     */
+    public double getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * Returns the total length of the trajectory in meters
+     * @return the total length of the trajectory in meters
+     */
+    public double getLength() {
+        return getDistance(size() - 1);
+    }
+
+    /**
+     * Returns the total time of the trajectory in seconds
+     * @return the total time of the trajectory in seconds
+     */
+    public double getTotalTime() {
+        return getTime(size() - 1);
+    }
+
+    /**
+     * Returns the distance along the parametric of the state at an index in meters
+     * @param index index of the state
+     * @return the distance along the parametric of the state in meters
+     */
+    public double getDistance(int index) {
+        return index * spacing;
+    }
+
+    /**
+     * Returns the t parameter of the state at an index
+     * @param index index of the state
+     * @return the t parameter of the state
+     */
+    public double getT(int index) {
+        return ts[index];
+    }
+
+    /**
+     * Returns the x coordinate of the state at an index in meters
+     * @param index index of the state
+     * @return the x coordinate of the state in meters
+     */
+    public double getX(int index) {
+        return xs[index];
+    }
+
+    /**
+     * Returns the y coordinate of the state at an index in meters
+     * @param index index of the state
+     * @return the y coordinate of the state in meters
+     */
+    public double getY(int index) {
+        return ys[index];
+    }
+
+    /**
+     * Returns the heading of the state at an index in radians
+     * @param index index of the state
+     * @return the heading of the state in radians
+     */
+    public double getHeading(int index) {
+        return headings[index];
+    }
+
+    /**
+     * Returns the curvature of the state at an index
+     * @param index index of the state
+     * @return the curvature of the state
+     */
+    public double getCurvature(int index) {
+        return curvatures[index];
+    }
+
+    /**
+     * Returns the velocity of the state at an index in meters/second
+     * @param index index of the state
+     * @return the velocity of the state in meters/second
+     */
+    public double getVelocity(int index) {
+        return velocities[index];
+    }
+
+    /**
+     * Returns the angular velocity of the state at an index in radians/second
+     * @param index index of the state
+     * @return the angular velocity of the state in radians/second
+     */
+    public double getAngularVelocity(int index) {
+        return angularVelocities[index];
+    }
+
+    /**
+     * Returns the acceleration from the state at an index to the next in meters/second^2
+     * @param index index of the state
+     * @return the acceleration from the state to the next in meters/second^2
+     */
+    public double getAcceleration(int index) {
+        return accelerations[index];
+    }
+
+    /**
+     * Returns the time of the state at an index since the start in seconds
+     * @param index index of the state
+     * @return the time of the state since the start in seconds
+     */
+    public double getTime(int index) {
+        return times[index];
+    }
+}
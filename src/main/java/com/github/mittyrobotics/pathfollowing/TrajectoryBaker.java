@@ -0,0 +1,164 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TrajectoryBaker {
+    /**
+     * Extension of path definitions and of the baked trajectory files, and the resource directory trajectories are
+     * baked into
+     */
+    public static final String DEFINITION_EXTENSION = ".path";
+    public static final String TRAJECTORY_EXTENSION = ".traj";
+    public static final String RESOURCE_DIRECTORY = "trajectories";
+
+    //A path definition is a text file with one setting per line, # starts a comment:
+    //  maxVelocity <meters/second>             required
+    //  maxAcceleration <meters/second^2>       required
+    //  maxDeceleration <meters/second^2>       defaults to maxAcceleration
+    //  maxAngularVelocity <radians/second>     defaults to infinity
+    //  startVelocity <meters/second>           defaults to 0
+    //  endVelocity <meters/second>             defaults to 0
+    //  spacing <meters>                        defaults to TrajectoryGenerator.DEFAULT_SPACING
+    //  arcLengthParameterization <true|false>  defaults to false
+    //  waypoint <x meters> <y meters> <heading radians>
+    //at least two waypoints are needed, a spline is built between each pair of consecutive waypoints
+
+    private TrajectoryBaker() {}
+
+    /**
+     * Bakes every path definition in a directory into a trajectory file in another directory, named after the definition
+     * @param definitions directory of path definitions, nothing is baked if it does not exist
+     * @param output directory to write the trajectory files to, created if needed
+     * @return the number of trajectories baked
+     * @throws IOException if a definition is invalid or a file could not be read or written
+     */
+    public static int bakeDirectory(File definitions, File output) throws IOException {
+        File[] files = definitions.listFiles((dir, name) -> name.endsWith(DEFINITION_EXTENSION));
+        if(files == null) return 0;
+        Arrays.sort(files);
+
+        if(!output.isDirectory() && !output.mkdirs()) throw new IOException("Could not create " + output);
+        for(File file : files) {
+            String name = file.getName().substring(0, file.getName().length() - DEFINITION_EXTENSION.length());
+            TrajectoryFile.write(bake(file), new File(output, name + TRAJECTORY_EXTENSION));
+        }
+        return files.length;
+    }
+
+    /**
+     * Builds the {@link QuinticHermiteSplineGroup} of a path definition and generates its {@link Trajectory}
+     * @param file path definition to read
+     * @return the generated {@link Trajectory}
+     * @throws IOException if the definition is invalid or could not be read
+     */
+    public static Trajectory bake(File file) throws IOException {
+        return bake(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8), file.getName());
+    }
+
+    /**
+     * Builds the {@link QuinticHermiteSplineGroup} of a path definition and generates its {@link Trajectory}
+     * @param lines lines of the path definition
+     * @param name name of the definition used in error messages
+     * @return the generated {@link Trajectory}
+     * @throws IOException if the definition is invalid
+     */
+    public static Trajectory bake(List<String> lines, String name) throws IOException {
+        double maxVelocity = Double.NaN, maxAcceleration = Double.NaN, maxDeceleration = Double.NaN;
+        double maxAngularVelocity = Double.POSITIVE_INFINITY, startVelocity = 0, endVelocity = 0;
+        double spacing = TrajectoryGenerator.DEFAULT_SPACING;
+        boolean arcLengthParameterization = false;
+        ArrayList<Pose2D> waypoints = new ArrayList<>();
+
+        for(int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            int comment = line.indexOf('#');
+            if(comment >= 0) line = line.substring(0, comment);
+            line = line.trim();
+            if(line.isEmpty()) continue;
+
+            String[] tokens = line.split("\\s+");
+            String location = name + ":" + (i + 1);
+            switch(tokens[0]) {
+                case "maxVelocity": maxVelocity = parse(tokens, 1, location)[0]; break;
+                case "maxAcceleration": maxAcceleration = parse(tokens, 1, location)[0]; break;
+                case "maxDeceleration": maxDeceleration = parse(tokens, 1, location)[0]; break;
+                case "maxAngularVelocity": maxAngularVelocity = parse(tokens, 1, location)[0]; break;
+                case "startVelocity": startVelocity = parse(tokens, 1, location)[0]; break;
+                case "endVelocity": endVelocity = parse(tokens, 1, location)[0]; break;
+                case "spacing": spacing = parse(tokens, 1, location)[0]; break;
+                case "arcLengthParameterization":
+                    if(tokens.length != 2 || !(tokens[1].equals("true") || tokens[1].equals("false"))) {
+                        throw new IOException(location + ": expected true or false");
+                    }
+                    arcLengthParameterization = Boolean.parseBoolean(tokens[1]);
+                    break;
+                case "waypoint":
+                    double[] values = parse(tokens, 3, location);
+                    waypoints.add(new Pose2D(values[0], values[1], values[2]));
+                    break;
+                default: throw new IOException(location + ": unknown setting " + tokens[0]);
+            }
+        }
+
+        if(Double.isNaN(maxVelocity) || Double.isNaN(maxAcceleration)) {
+            throw new IOException(name + ": maxVelocity and maxAcceleration are required");
+        }
+        if(waypoints.size() < 2) throw new IOException(name + ": at least two waypoints are required");
+        if(Double.isNaN(maxDeceleration)) maxDeceleration = maxAcceleration;
+
+        QuinticHermiteSplineGroup group = new QuinticHermiteSplineGroup();
+        for(int i = 1; i < waypoints.size(); i++) {
+            group.addSpline(new QuinticHermiteSpline(waypoints.get(i - 1), waypoints.get(i)));
+        }
+        group.setArcLengthParameterization(arcLengthParameterization);
+
+        return new TrajectoryGenerator(maxAcceleration, maxDeceleration, maxVelocity, maxAngularVelocity,
+                startVelocity, endVelocity, spacing).generate(group);
+    }
+
+    /**
+     * Parses the numbers after the setting name of a line
+     */
+    private static double[] parse(String[] tokens, int count, String location) throws IOException {
+        if(tokens.length != count + 1) throw new IOException(location + ": expected " + count + " value(s) after " + tokens[0]);
+        double[] values = new double[count];
+        for(int i = 0; i < count; i++) {
+            try {
+                values[i] = Double.parseDouble(tokens[i + 1]);
+            } catch(NumberFormatException e) {
+                throw new IOException(location + ": invalid number " + tokens[i + 1]);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Loads a trajectory baked into the resources of the jar at build time
+     * @param name name of the path definition without its extension
+     * @return a {@link MappedTrajectory} over the bytes of the resource
+     * @throws IOException if the resource does not exist or is not a valid trajectory file
+     */
+    public static MappedTrajectory load(String name) throws IOException {
+        return TrajectoryFile.readResource("/" + RESOURCE_DIRECTORY + "/" + name + TRAJECTORY_EXTENSION);
+    }
+
+    /**
+     * Bakes path definitions into trajectory files, used by the bakePaths Gradle task
+     * @param args directory of path definitions and directory to write the trajectory files to
+     * @throws IOException if a definition is invalid or a file could not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: TrajectoryBaker <definitions directory> <output directory>");
+            System.exit(1);
+        }
+        int baked = bakeDirectory(new File(args[0]), new File(args[1]));
+        System.out.println("Baked " + baked + " trajectories into " + args[1]);
+    }
+}
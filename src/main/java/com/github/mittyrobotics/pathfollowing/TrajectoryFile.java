@@ -0,0 +1,266 @@
+package com.github.mittyrobotics.pathfollowing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+public class TrajectoryFile {
+    /**
+     * The bytes "MTRJ" at the start of every file, and the version of the format written
+     */
+    public static final int MAGIC = 0x4A52544D;
+    public static final int VERSION = 1;
+
+    /**
+     * Types of parametric a file can hold
+     */
+    public static final int SPLINE = 0;
+    public static final int SPLINE_GROUP = 1;
+
+    /**
+     * Flags of the parametric: {@link QuinticHermiteSplineGroup#isArcLengthParameterization()}
+     */
+    public static final int ARC_LENGTH_PARAMETERIZATION = 1;
+
+    /**
+     * Size of the header in bytes, number of doubles stored per spline and number of columns stored per state
+     */
+    public static final int HEADER_BYTES = 48;
+    public static final int SPLINE_DOUBLES = 15;
+    public static final int COLUMNS = 9;
+
+    //Layout, little endian so it can be mapped without swapping bytes on the roboRIO and on x86:
+    //  int magic, int version, int parametric type, int flags,
+    //  int spline count, int state count, int time index count, int reserved,
+    //  double spacing, double time step
+    //  per spline: pose0 x, y, heading, pose1 x, y, heading, velocity0 x, y, velocity1 x, y,
+    //              acceleration0 x, y, acceleration1 x, y, length
+    //  per column (t, x, y, heading, curvature, velocity, angular velocity, acceleration, time): one double per state
+    //  one int per time index
+    //the distance of each state is not stored since it is always index * spacing
+
+    private TrajectoryFile() {}
+
+    /**
+     * Encodes a {@link Trajectory} and the {@link QuinticHermiteSpline} or {@link QuinticHermiteSplineGroup} it was
+     * generated from
+     * @param trajectory {@link Trajectory} to encode
+     * @return a new buffer holding the encoded trajectory, positioned at 0
+     */
+    public static ByteBuffer encode(Trajectory trajectory) {
+        Parametric parametric = trajectory.getParametric();
+        ArrayList<QuinticHermiteSpline> splines;
+        int type, flags = 0;
+        if(parametric instanceof QuinticHermiteSplineGroup) {
+            QuinticHermiteSplineGroup group = (QuinticHermiteSplineGroup) parametric;
+            splines = group.getSplines();
+            type = SPLINE_GROUP;
+            if(group.isArcLengthParameterization()) flags |= ARC_LENGTH_PARAMETERIZATION;
+        } else if(parametric instanceof QuinticHermiteSpline) {
+            splines = new ArrayList<>();
+            splines.add((QuinticHermiteSpline) parametric);
+            type = SPLINE;
+        } else {
+            throw new IllegalArgumentException("Only trajectories of quintic hermite splines and spline groups can be encoded");
+        }
+
+        int states = trajectory.size();
+        int timeIndexCount = trajectory.getTimeIndexCount();
+        int size = getSize(splines.size(), states, timeIndexCount);
+        if(size < 0) throw new IllegalArgumentException("Trajectory is too large to encode");
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(flags);
+        buffer.putInt(splines.size()).putInt(states).putInt(timeIndexCount).putInt(0);
+        buffer.putDouble(trajectory.getSpacing()).putDouble(trajectory.getTimeStep());
+
+        for(QuinticHermiteSpline spline : splines) {
+            putPose(buffer, spline.getPose0());
+            putPose(buffer, spline.getPose1());
+            putVector(buffer, spline.getVelocity0());
+            putVector(buffer, spline.getVelocity1());
+            putVector(buffer, spline.getAcceleration0());
+            putVector(buffer, spline.getAcceleration1());
+            buffer.putDouble(spline.getLength());
+        }
+
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getT(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getX(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getY(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getHeading(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getCurvature(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getVelocity(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getAngularVelocity(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getAcceleration(i));
+        for(int i = 0; i < states; i++) buffer.putDouble(trajectory.getTime(i));
+        for(int k = 0; k < timeIndexCount; k++) buffer.putInt(trajectory.getTimeIndex(k));
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes a {@link Trajectory} and the parametric it was generated from to a file, replacing it if it exists
+     * @param trajectory {@link Trajectory} to write
+     * @param file file to write to
+     * @throws IOException if the file could not be written
+     */
+    public static void write(Trajectory trajectory, File file) throws IOException {
+        ByteBuffer buffer = encode(trajectory);
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Maps a file read-only and returns the trajectory in it. Only the header and the splines are read up front, states
+     * are read from the mapping as they are sampled, so loading does not depend on the number of states
+     * @param file file written by {@link #write(Trajectory, File)}
+     * @return a {@link MappedTrajectory} over the mapped file
+     * @throws IOException if the file could not be mapped or is not a valid trajectory file
+     */
+    public static MappedTrajectory read(File file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE) throw new IOException("Trajectory file is too large: " + file);
+            //the mapping stays valid after the channel is closed
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Reads a trajectory from a resource on the classpath, such as one baked into the jar. Resources inside a jar cannot
+     * be mapped, so the bytes are read into memory once and the states are views of them
+     * @param resource absolute name of the resource, such as /trajectories/auto.traj
+     * @return a {@link MappedTrajectory} over the bytes of the resource
+     * @throws IOException if the resource does not exist or is not a valid trajectory file
+     */
+    public static MappedTrajectory readResource(String resource) throws IOException {
+        try(InputStream stream = TrajectoryFile.class.getResourceAsStream(resource)) {
+            if(stream == null) throw new IOException("Trajectory resource not found: " + resource);
+            return read(ByteBuffer.wrap(stream.readAllBytes()));
+        }
+    }
+
+    /**
+     * Returns the trajectory in a buffer, such as a mapped file or the bytes of a resource. The states are views of
+     * the buffer and are not copied, so the buffer must not be modified afterwards
+     * @param buffer buffer holding an encoded trajectory from its position to its limit
+     * @return a {@link MappedTrajectory} over the buffer
+     * @throws IOException if the buffer does not hold a valid trajectory
+     */
+    public static MappedTrajectory read(ByteBuffer buffer) throws IOException {
+        ByteBuffer data = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if(data.limit() < HEADER_BYTES || data.getInt(0) != MAGIC) throw new IOException("Not a trajectory file");
+        int version = data.getInt(4);
+        if(version != VERSION) throw new IOException("Unsupported trajectory file version " + version);
+
+        int type = data.getInt(8);
+        int flags = data.getInt(12);
+        int splineCount = data.getInt(16);
+        int states = data.getInt(20);
+        int timeIndexCount = data.getInt(24);
+        double spacing = data.getDouble(32);
+        double timeStep = data.getDouble(40);
+        if(splineCount < 1 || states < 1 || timeIndexCount < 0 || (type == SPLINE && splineCount != 1) ||
+                (type != SPLINE && type != SPLINE_GROUP)) {
+            throw new IOException("Invalid trajectory file header");
+        }
+        if(getSize(splineCount, states, timeIndexCount) != data.limit()) {
+            throw new IOException("Trajectory file size does not match its header");
+        }
+
+        ArrayList<QuinticHermiteSpline> splines = new ArrayList<>(splineCount);
+        int offset = HEADER_BYTES;
+        for(int i = 0; i < splineCount; i++) {
+            splines.add(new QuinticHermiteSpline(
+                    getPose(data, offset), getPose(data, offset + 24),
+                    getVector(data, offset + 48), getVector(data, offset + 64),
+                    getVector(data, offset + 80), getVector(data, offset + 96),
+                    data.getDouble(offset + 112)));
+            offset += SPLINE_DOUBLES * Double.BYTES;
+        }
+
+        Parametric parametric;
+        if(type == SPLINE_GROUP) {
+            QuinticHermiteSplineGroup group = new QuinticHermiteSplineGroup(splines);
+            group.setArcLengthParameterization((flags & ARC_LENGTH_PARAMETERIZATION) != 0);
+            parametric = group;
+        } else {
+            parametric = splines.get(0);
+        }
+
+        int column = states * Double.BYTES;
+        return new MappedTrajectory(parametric, spacing,
+                getDoubles(data, offset, states), getDoubles(data, offset + column, states),
+                getDoubles(data, offset + 2 * column, states), getDoubles(data, offset + 3 * column, states),
+                getDoubles(data, offset + 4 * column, states), getDoubles(data, offset + 5 * column, states),
+                getDoubles(data, offset + 6 * column, states), getDoubles(data, offset + 7 * column, states),
+                getDoubles(data, offset + 8 * column, states), getInts(data, offset + COLUMNS * column, timeIndexCount),
+                timeStep);
+    }
+
+    /**
+     * Returns the size in bytes of an encoded trajectory
+     * @param splines number of splines
+     * @param states number of states
+     * @param timeIndexCount number of time indices
+     * @return the size in bytes, or -1 if it does not fit in a buffer
+     */
+    public static int getSize(int splines, int states, int timeIndexCount) {
+        long size = HEADER_BYTES + (long) splines * SPLINE_DOUBLES * Double.BYTES +
+                (long) states * COLUMNS * Double.BYTES + (long) timeIndexCount * Integer.BYTES;
+        return size > Integer.MAX_VALUE ? -1 : (int) size;
+    }
+
+    /**
+     * Returns a view of count doubles in a little endian buffer starting at a byte offset
+     */
+    private static DoubleBuffer getDoubles(ByteBuffer data, int offset, int count) {
+        return getView(data, offset, count * Double.BYTES).asDoubleBuffer();
+    }
+
+    /**
+     * Returns a view of count ints in a little endian buffer starting at a byte offset
+     */
+    private static IntBuffer getInts(ByteBuffer data, int offset, int count) {
+        return getView(data, offset, count * Integer.BYTES).asIntBuffer();
+    }
+
+    /**
+     * Returns a little endian view of length bytes starting at a byte offset
+     */
+    private static ByteBuffer getView(ByteBuffer data, int offset, int length) {
+        ByteBuffer view = data.duplicate();
+        view.limit(offset + length);
+        view.position(offset);
+        //slices are always big endian, so the order has to be set again
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void putPose(ByteBuffer buffer, Pose2D pose) {
+        buffer.putDouble(pose.getPosition().getX()).putDouble(pose.getPosition().getY()).putDouble(pose.getAngle().getRadians());
+    }
+
+    private static void putVector(ByteBuffer buffer, Vector2D vector) {
+        buffer.putDouble(vector.getX()).putDouble(vector.getY());
+    }
+
+    private static Pose2D getPose(ByteBuffer data, int offset) {
+        return new Pose2D(new Point2D(data.getDouble(offset), data.getDouble(offset + 8)), Angle.fromStandardized(data.getDouble(offset + 16)));
+    }
+
+    private static Vector2D getVector(ByteBuffer data, int offset) {
+        return new Vector2D(data.getDouble(offset), data.getDouble(offset + 8));
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class TrajectoryGenerator {
+    /**
+     * Default distance between states in meters
+     */
+    public static final double DEFAULT_SPACING = 0.01;
+
+    /**
+     * Motion profile limits and distance between states
+     */
+    private final double maxAcceleration, maxDeceleration, maxVelocity, maxAngularVelocity, startVelocity, endVelocity;
+    private final double spacing;
+
+    /**
+     * Creates a new trajectory generator
+     * @param maxAcceleration max acceleration of motion profile
+     * @param maxDeceleration max deceleration of motion profile
+     * @param maxVelocity max velocity of motion profile
+     * @param maxAngularVelocity max angular velocity of motion profile
+     * @param startVelocity starting velocity of motion profile
+     * @param endVelocity desired ending of motion profile
+     * @param spacing desired distance between states in meters, rounded down so the states evenly divide the parametric
+     */
+    public TrajectoryGenerator(double maxAcceleration, double maxDeceleration, double maxVelocity, double maxAngularVelocity,
+                               double startVelocity, double endVelocity, double spacing) {
+        this.maxAcceleration = maxAcceleration;
+        this.maxDeceleration = maxDeceleration;
+        this.maxVelocity = maxVelocity;
+        this.maxAngularVelocity = maxAngularVelocity;
+        this.startVelocity = startVelocity;
+        this.endVelocity = endVelocity;
+        this.spacing = spacing;
+    }
+
+    /**
+     * Creates a new trajectory generator with the motion profile limits of a {@link Path}
+     * @param path {@link Path} to get the motion profile limits from
+     * @param spacing desired distance between states in meters, rounded down so the states evenly divide the parametric
+     */
+    public TrajectoryGenerator(Path path, double spacing) {
+        this(path.getMaxAcceleration(), path.getMaxDeceleration(), path.getMaxVelocity(), path.getMaxAngularVelocity(),
+                path.getStartVelocity(), path.getEndVelocity(), spacing);
+    }
+
+    /**
+     * Creates a new trajectory generator with the motion profile limits of a {@link Path} and the default spacing
+     * @param path {@link Path} to get the motion profile limits from
+     */
+    public TrajectoryGenerator(Path path) {
+        this(path, DEFAULT_SPACING);
+    }
+
+    /**
+     * Generates a {@link Trajectory} along a parametric. The velocity at each state is limited by the max velocity and
+     * the max angular velocity at its curvature, then a forward pass limits it by the max acceleration from the starting
+     * velocity and a backward pass limits it by the max deceleration to the ending velocity
+     * @param parametric parametric to generate the trajectory along
+     * @return the generated {@link Trajectory}
+     */
+    public Trajectory generate(Parametric parametric) {
+        double length = parametric.getLength();
+        int size = Math.max(2, (int) Math.ceil(length / spacing) + 1);
+        double ds = length / (size - 1);
+
+        double[] ts = new double[size];
+        for(int i = 1; i < size - 1; i++) {
+            ts[i] = parametric.getTFromLength(i * ds);
+        }
+        ts[size - 1] = 1;
+
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        parametric.evaluateBatch(ts, xs, ys);
+
+        //heading from the direction of the first derivative
+        double[] headings = new double[size];
+        double[] dys = new double[size];
+        parametric.evaluateDerivativeBatch(ts, 1, headings, dys);
+        for(int i = 0; i < size; i++) {
+            headings[i] = Math.atan2(dys[i], headings[i]);
+        }
+
+        double[] curvatures = new double[size];
+        parametric.evaluateCurvatureBatch(ts, curvatures);
+
+        //limit by max velocity and max angular velocity (w = v * curvature)
+        double[] velocities = new double[size];
+        for(int i = 0; i < size; i++) {
+            velocities[i] = maxVelocity;
+            if(Double.isFinite(maxAngularVelocity) && curvatures[i] != 0) {
+                velocities[i] = Math.min(velocities[i], Math.abs(maxAngularVelocity / curvatures[i]));
+            }
+        }
+
+        //forward pass, vf^2 = vi^2 + 2ad
+        velocities[0] = Math.min(velocities[0], startVelocity);
+        for(int i = 1; i < size; i++) {
+            velocities[i] = Math.min(velocities[i], Math.sqrt(velocities[i-1] * velocities[i-1] + 2 * maxAcceleration * ds));
+        }
+
+        //backward pass, vi^2 = vf^2 + 2dd
+        velocities[size - 1] = Math.min(velocities[size - 1], endVelocity);
+        for(int i = size - 2; i >= 0; i--) {
+            velocities[i] = Math.min(velocities[i], Math.sqrt(velocities[i+1] * velocities[i+1] + 2 * maxDeceleration * ds));
+        }
+
+        double[] angularVelocities = new double[size];
+        double[] accelerations = new double[size];
+        double[] times = new double[size];
+        for(int i = 0; i < size; i++) {
+            angularVelocities[i] = velocities[i] * curvatures[i];
+            if(i < size - 1) {
+                double v0 = velocities[i], v1 = velocities[i+1];
+                //constant acceleration between states
+                accelerations[i] = ds > 0 ? (v1 * v1 - v0 * v0) / (2 * ds) : 0;
+                times[i+1] = times[i] + (v0 + v1 > 0 ? 2 * ds / (v0 + v1) : (ds > 0 ? Double.POSITIVE_INFINITY : 0));
+            }
+        }
+
+        return new Trajectory(parametric, ds, ts, xs, ys, headings, curvatures, velocities, angularVelocities, accelerations, times);
+    }
+
+    /**
+     * Returns the desired distance between states in meters
+     * @return the desired distance between states in meters
+     */
+    public double getSpacing() {
+        return spacing;
+    }
+}
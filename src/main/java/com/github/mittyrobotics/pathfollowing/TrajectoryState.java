@@ -0,0 +1,49 @@
+package com.github.mittyrobotics.pathfollowing;
+
+public class TrajectoryState {
+    /**
+     * Distance along the parametric in meters and the associated t parameter
+     */
+    public double distance;
+    public double t;
+
+    /**
+     * Position in meters and heading in radians
+     */
+    public double x;
+    public double y;
+    public double heading;
+
+    /**
+     * Curvature, velocity in meters/second, angular velocity in radians/second, acceleration in meters/second^2,
+     * and time since the start of the trajectory in seconds
+     */
+    public double curvature;
+    public double velocity;
+    public double angularVelocity;
+    public double acceleration;
+    public double time;
+
+    /**
+     * Create a new state with all 0 values
+     */
+    public TrajectoryState() {}
+
+    /**
+     * Returns the position and heading of the state as a new {@link Pose2D}
+     * @return the position and heading of the state as a new {@link Pose2D}
+     */
+    public Pose2D getPose() {
+        return new Pose2D(x, y, heading);
+    }
+
+    /**
+     * Returns string representation of the state in meters
+     * @return string representation of the state in meters
+     */
+    public String toStringMetric() {
+        return "distance = " + distance + ", t = " + t + ", (" + x + ", " + y + "), heading = " + heading +
+                ", curvature = " + curvature + ", velocity = " + velocity + ", angular velocity = " + angularVelocity +
+                ", acceleration = " + acceleration + ", time = " + time;
+    }
+}
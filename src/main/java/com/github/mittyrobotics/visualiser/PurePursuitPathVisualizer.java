@@ -3,9 +3,6 @@ package com.github.mittyrobotics.visualiser;
 import java.awt.*;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import javax.swing.*;
 
 import com.github.mittyrobotics.pathfollowing.*;
@@ -19,8 +16,8 @@ public class PurePursuitPathVisualizer {
     private final double dt;
     private final double TRACKWIDTH;
     private final double TRACKLENGTH;
-    private double cur_time, END_TIME;
-    private Pose2D robotPosition, startPosition;
+    private double END_TIME;
+    private Pose2D startPosition;
 
     private double METERS_TO_PIXELS;
     private int TITLE_HEIGHT;
@@ -29,14 +26,8 @@ public class PurePursuitPathVisualizer {
     private int ADJUST_FRAME_HEIGHT;
     private int ADJUST_FRAME_WIDTH;
     private int NEWTONS_STEPS;
-    private final ArrayList<Pose2D> robotPoses = new ArrayList<>();
     private final ArrayList<Point2D> lookaheads = new ArrayList<>();
-    private final ArrayList<Vector2D> velocities = new ArrayList<>();
-    private final ArrayList<Double> angularVelocities = new ArrayList<>();
-    private final ArrayList<Double> curvatures = new ArrayList<>();
-    private final ArrayList<Double> linearVelocities = new ArrayList<>();
-    private final ArrayList<Parametric> parametrics = new ArrayList<>();
-    private final ArrayList<Point2D> closests = new ArrayList<>();
+    private final DifferentialDriveSimulator<PurePursuitPath> simulator;
 
     private int cur_pos_index = 0;
     private JFrame frame, adjustFrame;
@@ -46,7 +37,7 @@ public class PurePursuitPathVisualizer {
     private JTextField[] rightFields, leftFields;
     private final String[] rightLabels = {"Max Acceleration", "Max Deceleration", "Max Velocity", "Max Angular Vel.", "Start Velocity", "End Velocity", "Start Position X", "Start Position Y", "Start Angle", "Lookahead", "End Threshold", "Adjust Threshold", "Newton's Steps"};
     private final String[] leftLabels = {"Pose 0 X", "Pose 0 Y", "Pose 0 Angle", "Pose 1 X", "Pose 1 Y", "Pose 1 Angle", "Velocity 0 X", "Velocity 0 Y", "Velocity 1 X", "Velocity 1 Y", "Acceleration 0 X", "Acceleration 0 Y", "Acceleration 1 X", "Acceleration 1 Y"};
-    private ScheduledExecutorService executorService;
+    private ControlLoop playback;
 
     boolean simulating = false;
 
@@ -60,6 +51,8 @@ public class PurePursuitPathVisualizer {
         this.TRACKLENGTH = TRACKLENGTH;
 
         this.dt = dt;
+        this.simulator = new DifferentialDriveSimulator<>(
+                (p, pose, period, out) -> p.update(pose, period, LOOKAHEAD, ADJUST_THRESHOLD, NEWTONS_STEPS, TRACKWIDTH, out), TRACKWIDTH, dt);
     }
 
     public PurePursuitPathVisualizer(PurePursuitPath path, double LOOKAHEAD, double THRESHOLD, double ADJUST_THRESHOLD, int NEWTONS_STEPS, double TRACKWIDTH, double TRACKLENGTH) {
@@ -70,7 +63,7 @@ public class PurePursuitPathVisualizer {
 
         if(timeSlider != null) {
             timeSlider.setValue(cur_pos_index);
-            if (cur_pos_index == velocities.size() - 1) {
+            if (cur_pos_index == simulator.size() - 1) {
                 runSimButton.setText("RUN SIM");
             }
         }
@@ -120,10 +113,10 @@ public class PurePursuitPathVisualizer {
 
         //draw robot
 
-        Angle angle = robotPoses.get(cur_pos_index).getAngle();
+        Angle angle = new Angle(simulator.getHeading(cur_pos_index));
         Angle angle1 = new Angle(Math.PI/2 + angle.getRadians());
 
-        Point2D pos = new Point2D(robotPoses.get(cur_pos_index).getPosition().getX(), robotPoses.get(cur_pos_index).getPosition().getY());
+        Point2D pos = new Point2D(simulator.getX(cur_pos_index), simulator.getY(cur_pos_index));
 
         Point2D front = new Point2D(pos.getX() + TRACKLENGTH/2*angle.cos(), pos.getY() + TRACKLENGTH/2*angle.sin());
         Point2D back = new Point2D(pos.getX() - TRACKLENGTH/2*angle.cos(), pos.getY() - TRACKLENGTH/2*angle.sin());
@@ -146,17 +139,23 @@ public class PurePursuitPathVisualizer {
 
         g.setStroke(new BasicStroke(5));
 
-        for(double i = 0; i < 1; i += 0.001) {
-            Point2D start = parametrics.get(cur_pos_index).getPoint(i);
-            Point2D end = parametrics.get(cur_pos_index).getPoint(i+0.001);
+        //sample the spline in one batch, each segment ends where the next one starts
+        double[] ts = new double[1001];
+        for(int i = 0; i < ts.length; i++) {
+            ts[i] = i / 1000.;
+        }
+        double[] xs = new double[ts.length];
+        double[] ys = new double[ts.length];
+        simulator.getParametric(cur_pos_index).evaluateBatch(ts, xs, ys);
 
-            g.drawLine(convertXToPixels(start.getX()), convertYToPixels(start.getY()),
-                    convertXToPixels(end.getX()), convertYToPixels(end.getY()));
+        for(int i = 0; i < ts.length - 1; i++) {
+            g.drawLine(convertXToPixels(xs[i]), convertYToPixels(ys[i]),
+                    convertXToPixels(xs[i+1]), convertYToPixels(ys[i+1]));
         }
 
         g.setColor(new Color(150, 0, 0));
-        Point2D start = parametrics.get(cur_pos_index).getPoint(0);
-        Point2D end = parametrics.get(cur_pos_index).getPoint(1);
+        Point2D start = simulator.getParametric(cur_pos_index).getPoint(0);
+        Point2D end = simulator.getParametric(cur_pos_index).getPoint(1);
 
         g.fillOval(convertXToPixels(start.getX())-5, convertYToPixels(start.getY())-5, 10, 10);
         g.fillOval(convertXToPixels(end.getX())-5, convertYToPixels(end.getY())-5, 10, 10);
@@ -167,14 +166,11 @@ public class PurePursuitPathVisualizer {
         g.setStroke(new BasicStroke(3));
 
 //        g.fillOval(convertXToPixels(pos.getX())-5, convertYToPixels(pos.getY())-5, 10, 10);
-        g.fillOval(convertXToPixels(closests.get(cur_pos_index).x)-5, convertYToPixels(closests.get(cur_pos_index).y)-5, 10, 10);
+        g.fillOval(convertXToPixels(simulator.getClosestX(cur_pos_index))-5, convertYToPixels(simulator.getClosestY(cur_pos_index))-5, 10, 10);
 
 
         for(int i = 0; i < cur_pos_index; i++) {
-            Pose2D pose1 = robotPoses.get(i);
-            Pose2D pose2 = robotPoses.get(i+1);
-
-            g.drawLine(convertXToPixels(pose1.getPosition().getX()), convertYToPixels(pose1.getPosition().getY()),convertXToPixels(pose2.getPosition().getX()), convertYToPixels(pose2.getPosition().getY()));
+            g.drawLine(convertXToPixels(simulator.getX(i)), convertYToPixels(simulator.getY(i)), convertXToPixels(simulator.getX(i+1)), convertYToPixels(simulator.getY(i+1)));
         }
 
         g.setColor(Color.GREEN);
@@ -194,34 +190,34 @@ public class PurePursuitPathVisualizer {
         df.setMaximumFractionDigits(3);
         df.setMinimumFractionDigits(3);
 
-        g.drawString("Velocity: " + df.format(linearVelocities.get(cur_pos_index)*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 180);
-        g.drawString("Left Velocity: " + df.format(velocities.get(cur_pos_index).getX()*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 210);
-        g.drawString("Right Velocity: " + df.format(velocities.get(cur_pos_index).getY()*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 240);
+        g.drawString("Velocity: " + df.format(simulator.getLinearVelocity(cur_pos_index)*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 180);
+        g.drawString("Left Velocity: " + df.format(simulator.getLeftVelocity(cur_pos_index)*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 210);
+        g.drawString("Right Velocity: " + df.format(simulator.getRightVelocity(cur_pos_index)*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 240);
 
         Vector2D acc = new Vector2D();
         double lacc = 0;
         if(cur_pos_index != 0) {
-            acc = new Vector2D((velocities.get(cur_pos_index).getX() - velocities.get(cur_pos_index-1).getX())/dt,
-                    (velocities.get(cur_pos_index).getY() - velocities.get(cur_pos_index-1).getY())/dt);
-            lacc = (linearVelocities.get(cur_pos_index) - linearVelocities.get(cur_pos_index-1))/dt;
+            acc = new Vector2D((simulator.getLeftVelocity(cur_pos_index) - simulator.getLeftVelocity(cur_pos_index-1))/dt,
+                    (simulator.getRightVelocity(cur_pos_index) - simulator.getRightVelocity(cur_pos_index-1))/dt);
+            lacc = (simulator.getLinearVelocity(cur_pos_index) - simulator.getLinearVelocity(cur_pos_index-1))/dt;
         }
 
         g.drawString("Acceleration: " + df.format(lacc*Path.TO_INCHES) + " in/s^2", FRAME_WIDTH+30, 290);
         g.drawString("Left Acceleration: " + df.format(acc.getX()*Path.TO_INCHES) + " in/s^2", FRAME_WIDTH+30, 320);
         g.drawString("Right Acceleration: " + df.format(acc.getY()*Path.TO_INCHES) + " in/s^2", FRAME_WIDTH+30, 350);
 
-        g.drawString("Angular Velocity: " + df.format(angularVelocities.get(cur_pos_index)*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 400);
-        g.drawString("Curvature: " + df.format(curvatures.get(cur_pos_index)*PurePursuitPath.TO_METERS) + " in^-1", FRAME_WIDTH+30, 430);
+        g.drawString("Angular Velocity: " + df.format(simulator.getAngularVelocity(cur_pos_index)*Path.TO_INCHES) + " in/s", FRAME_WIDTH+30, 400);
+        g.drawString("Curvature: " + df.format(simulator.getCurvature(cur_pos_index)*PurePursuitPath.TO_METERS) + " in^-1", FRAME_WIDTH+30, 430);
 
         g.drawString("Position: " + "(" + df.format(pos.getX()*Path.TO_INCHES) + " in, " + df.format(pos.getY()*Path.TO_INCHES) + " in)", FRAME_WIDTH+30, 480);
-        g.drawString("Distance From Spline: " + df.format(path.distanceFromSpline(parametrics.get(cur_pos_index), robotPoses.get(cur_pos_index), NEWTONS_STEPS) * Path.TO_INCHES) + " in", FRAME_WIDTH+30, 510);
+        g.drawString("Distance From Spline: " + df.format(path.distanceFromSpline(simulator.getParametric(cur_pos_index), new Pose2D(pos, angle), NEWTONS_STEPS) * Path.TO_INCHES) + " in", FRAME_WIDTH+30, 510);
         g.drawString("Angle: " + df.format(angle.getRadians() * 180 / Math.PI) + " °", FRAME_WIDTH+30, 540);
         g.drawString("Endpoint: " + "(" + df.format(end.getX()*Path.TO_INCHES) + " in, " + df.format(end.getY()*Path.TO_INCHES) + " in)", FRAME_WIDTH+30, 570);
         double endAngle = path.getParametric().getPose(1).getAngle().getRadians();
         g.drawString("End Angle: " + df.format(endAngle * 180 / Math.PI) + " °", FRAME_WIDTH+30, 600);
 
         g.drawString("Time Elapsed: " + df.format(cur_pos_index * 0.02) + " s", FRAME_WIDTH+30, 650);
-        g.drawString("Total Time: " + df.format((velocities.size()-1) * 0.02) + " s", FRAME_WIDTH+30, 680);
+        g.drawString("Total Time: " + df.format((simulator.size()-1) * 0.02) + " s", FRAME_WIDTH+30, 680);
 
         g.drawString("Adjust Time", FRAME_WIDTH+30, 730);
 
@@ -401,7 +397,7 @@ public class PurePursuitPathVisualizer {
     }
 
     private void updateTimeSlider() {
-        timeSlider = new JSlider(JSlider.HORIZONTAL, 0, velocities.size()-1, 0);
+        timeSlider = new JSlider(JSlider.HORIZONTAL, 0, simulator.size()-1, 0);
         timeSlider.setPaintTicks(false);
         timeSlider.setPaintLabels(false);
 
@@ -635,35 +631,20 @@ public class PurePursuitPathVisualizer {
         component.add(adjustButton);
 
 
-        Runnable simRunnable = () -> {
-            component.updateUI();
-
+        //advances one recorded state per tick, so playback runs at the speed of the simulation
+        if(playback != null) playback.stop();
+        playback = new ControlLoop(period -> {
             if(simulating) {
-                for (int i = cur_pos_index; i < robotPoses.size(); i++) {
-                    if(simulating) {
-                        try {
-                            Thread.sleep((long) (dt * 1000));
-
-                            cur_pos_index = i;
-                            component.updateUI();
-
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    } else {
-                        break;
-                    }
-                }
-
-                if(simulating) {
+                if(cur_pos_index < simulator.size() - 1) {
+                    cur_pos_index++;
+                } else {
                     runSimButton.setText("RUN SIM");
                     simulating = false;
                 }
             }
-        };
-
-        executorService = Executors.newScheduledThreadPool(1);
-        executorService.scheduleAtFixedRate(simRunnable, 0, 10, TimeUnit.MILLISECONDS);
+            component.updateUI();
+        }, dt);
+        playback.start();
 
     }
 
@@ -677,68 +658,19 @@ public class PurePursuitPathVisualizer {
         METERS_TO_PIXELS = 400 / maxMeters;
 
 
-        robotPosition = startPosition;
-        cur_time = 0;
-
-        curvatures.clear();
-        robotPoses.clear();
         lookaheads.clear();
-        velocities.clear();
-        angularVelocities.clear();
-        linearVelocities.clear();
-        parametrics.clear();
-
-        curvatures.add(path.getCurvature(0));
-        robotPoses.add(robotPosition);
-        lookaheads.add(path.getLookaheadFromRobotPose(robotPosition, LOOKAHEAD, NEWTONS_STEPS));
-        velocities.add(new Vector2D(path.getStartVelocity(), path.getStartVelocity()));
-        angularVelocities.add(path.getAngularVelocityAtPoint(0, path.getStartVelocity()));
-        linearVelocities.add(path.getStartVelocity());
-        parametrics.add(path.getParametric());
-        closests.add(path.getParametric().getPoint(0));
-
-        //http://rossum.sourceforge.net/papers/DiffSteer/
-
-        while(cur_time < END_TIME) {
-
-            DifferentialDriveState dds = path.update(robotPosition, dt, LOOKAHEAD, ADJUST_THRESHOLD, NEWTONS_STEPS, TRACKWIDTH);
-            double left = dds.getLeftVelocity() * dt;
-            double right = dds.getRightVelocity() * dt;
-            Angle angle = robotPosition.getAngle();
-            double x = robotPosition.getPosition().getX();
-            double y = robotPosition.getPosition().getY();
-            double new_x, new_y, newAngle;
-
-            if(Math.abs(left - right) < 1e-6) {
-                new_x = x + left * angle.cos();
-                new_y = y + right * angle.sin();
-                newAngle = angle.getRadians();
-            } else {
-                double turnRadius = TRACKWIDTH * (left + right) / (2 * (right - left));
-                newAngle = Math.toRadians(Math.toDegrees(angle.getRadians() + (right - left) / TRACKWIDTH));
-
-                new_x = x + turnRadius * (Math.sin(newAngle) - angle.sin());
-                new_y = y - turnRadius * (Math.cos(newAngle) - angle.cos());
-            }
 
-            cur_time += dt;
+        simulator.ensureCapacity((int) Math.ceil(END_TIME / dt) + 2);
+        simulator.reset(path, startPosition);
+        lookaheads.add(path.getLookaheadFromRobotPose(startPosition, LOOKAHEAD, NEWTONS_STEPS));
 
-            curvatures.add(path.getCurvature());
+        while(simulator.getTime(simulator.size() - 1) < END_TIME) {
+            simulator.step();
+            lookaheads.add(path.getLookaheadFromRobotPose(simulator.getRobotPose(), LOOKAHEAD, NEWTONS_STEPS));
 
-            robotPosition = new Pose2D(new_x, new_y, newAngle);
-
-            robotPoses.add(robotPosition);
-            lookaheads.add(path.getLookaheadFromRobotPose(robotPosition, LOOKAHEAD, NEWTONS_STEPS));
-            velocities.add(new Vector2D(dds.getLeftVelocity(), dds.getRightVelocity()));
-            angularVelocities.add(dds.getAngularVelocity());
-            linearVelocities.add(dds.getLinearVelocity());
-            parametrics.add(path.getParametric());
-            closests.add(path.getParametric().getPoint(path.getParametric().findClosestPointOnSpline(robotPosition.getPosition(), NEWTONS_STEPS, 5)));
-
-            if(path.isFinished(robotPosition, END_THRESHOLD)) {
+            if(simulator.isFinished(END_THRESHOLD)) {
                 break;
             }
-
         }
     }
 